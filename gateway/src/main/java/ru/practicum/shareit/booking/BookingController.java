@@ -7,8 +7,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.client.BaseClient;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
@@ -23,10 +25,10 @@ public class BookingController {
 	private final BookingClient bookingClient;
 
 	@GetMapping
-	public ResponseEntity<Object> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
-											  @RequestParam(name = "state", defaultValue = "all") String stateParam,
-											  @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-											  @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+	public Mono<ResponseEntity<Object>> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+											        @RequestParam(name = "state", defaultValue = "all") String stateParam,
+											        @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+											        @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
 		BookingState state = BookingState.from(stateParam)
 				.orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
 		log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
@@ -34,34 +36,57 @@ public class BookingController {
 	}
 
 	@GetMapping("/owner")
-	public ResponseEntity<Object> getOwnerBookings(@RequestHeader("X-Sharer-User-Id") long userId,
-											  @RequestParam(name = "state", defaultValue = "all") String stateParam,
-											  @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-											  @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+	public Mono<ResponseEntity<Object>> getOwnerBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+											             @RequestParam(name = "state", defaultValue = "all") String stateParam,
+											             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+											             @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
 		BookingState state = BookingState.from(stateParam)
 				.orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
 		log.info("Get owner booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
 		return bookingClient.getOwnerBookings(userId, state, from, size);
 	}
 
+	@GetMapping(params = "cursor")
+	public Mono<ResponseEntity<Object>> getBookingsByCursor(@RequestHeader("X-Sharer-User-Id") long userId,
+													        @RequestParam(name = "state", defaultValue = "all") String stateParam,
+													        @RequestParam(name = "cursor") String cursor,
+													        @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+		BookingState state = BookingState.from(stateParam)
+				.orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
+		log.info("Get booking with state {}, userId={}, cursor={}, size={}", stateParam, userId, cursor, size);
+		return bookingClient.getBookings(userId, state, cursor, size);
+	}
+
+	@GetMapping(path = "/owner", params = "cursor")
+	public Mono<ResponseEntity<Object>> getOwnerBookingsByCursor(@RequestHeader("X-Sharer-User-Id") long userId,
+														         @RequestParam(name = "state", defaultValue = "all") String stateParam,
+														         @RequestParam(name = "cursor") String cursor,
+														         @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+		BookingState state = BookingState.from(stateParam)
+				.orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
+		log.info("Get owner booking with state {}, userId={}, cursor={}, size={}", stateParam, userId, cursor, size);
+		return bookingClient.getOwnerBookings(userId, state, cursor, size);
+	}
+
 	@PostMapping
-	public ResponseEntity<Object> bookItem(@RequestHeader("X-Sharer-User-Id") long userId,
+	public Mono<ResponseEntity<Object>> bookItem(@RequestHeader("X-Sharer-User-Id") long userId,
+			@RequestHeader(value = BaseClient.IDEMPOTENCY_KEY, required = false) String idempotencyKey,
 			@RequestBody @Valid BookItemRequestDto requestDto) {
-		log.info("Creating booking {}, userId={}", requestDto, userId);
-		return bookingClient.bookItem(userId, requestDto);
+		log.info("Creating booking {}, userId={}, idempotencyKey={}", requestDto, userId, idempotencyKey);
+		return bookingClient.bookItem(userId, idempotencyKey, requestDto);
 	}
 
 	@PatchMapping("/{bookingId}")
-	public ResponseEntity<Object> update(@RequestHeader("X-Sharer-User-Id") long userId,
-										 @RequestParam Boolean approved,
-										 @PathVariable Long bookingId) {
+	public Mono<ResponseEntity<Object>> update(@RequestHeader("X-Sharer-User-Id") long userId,
+										       @RequestParam Boolean approved,
+										       @PathVariable Long bookingId) {
 		log.info("Updating booking {}, userId={}", bookingId, userId);
 		return bookingClient.update(userId, approved, bookingId);
 	}
 
 	@GetMapping("/{bookingId}")
-	public ResponseEntity<Object> getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
-											@PathVariable Long bookingId) {
+	public Mono<ResponseEntity<Object>> getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+											       @PathVariable Long bookingId) {
 		log.info("Get booking {}, userId={}", bookingId, userId);
 		return bookingClient.getBooking(userId, bookingId);
 	}
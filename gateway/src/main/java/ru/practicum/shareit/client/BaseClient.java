@@ -1,86 +1,149 @@
 package ru.practicum.shareit.client;
 
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
 
 public class BaseClient {
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            "connection", "keep-alive", "proxy-authenticate", "proxy-authorization",
+            "te", "trailer", "transfer-encoding", "upgrade"
+    );
+
     protected final RestTemplate rest;
+    protected final WebClient webClient;
+    @Value("${shareit-server.passthrough:false}")
+    private boolean passthrough;
+    @Value("${shareit-server.reactive:false}")
+    private boolean reactive;
+    @Autowired
+    private RequestCoalescer coalescer;
 
-    public BaseClient(RestTemplate rest) {
+    public BaseClient(RestTemplate rest, WebClient webClient) {
         this.rest = rest;
+        this.webClient = webClient;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.GET, path, userId, null, parameters, null, false);
+    }
+
+    protected Mono<ResponseEntity<Object>> coalescedGet(String route, String path, @Nullable Long userId, @Nullable Map<String, Object> parameters) {
+        return coalescer.coalesce(route, coalescingKey(path, userId, parameters),
+                () -> makeAndSendRequest(HttpMethod.GET, path, userId, null, parameters, null, true));
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    static String coalescingKey(String path, @Nullable Long userId, @Nullable Map<String, Object> parameters) {
+        String uri = UriComponentsBuilder.fromUriString(path)
+                .buildAndExpand(parameters != null ? parameters : Map.of())
+                .toUriString();
+        return uri + " " + userId;
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, null, parameters, body, false);
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> idempotentPost(String path, long userId, @Nullable String idempotencyKey, T body) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, idempotencyKey, null, body, false);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.PUT, path, userId, null, parameters, body, false);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.PATCH, path, userId, null, parameters, body, false);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.DELETE, path, userId, null, parameters, null, false);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable String idempotencyKey,
+                                                                @Nullable Map<String, Object> parameters, @Nullable T body, boolean buffered) {
+        HttpHeaders headers = defaultHeaders(userId, idempotencyKey);
+        if (reactive) {
+            return sendReactiveRequest(method, path, headers, parameters, body);
+        }
+        return Mono.fromCallable(() -> sendBlockingRequest(method, path, headers, parameters, body, buffered));
+    }
+
+    private <T> ResponseEntity<Object> sendBlockingRequest(HttpMethod method, String path, HttpHeaders headers, @Nullable Map<String, Object> parameters,
+                                                           @Nullable T body, boolean buffered) throws IOException {
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, headers);
+
+        if (passthrough) {
+            // Ответ, который разделяют объединённые запросы или кладут в кэш, нельзя отдать потоком
+            if (buffered) {
+                return sendPassthroughRequest(method, path, requestEntity, parameters);
+            }
+            return sendStreamingRequest(method, path, requestEntity, parameters);
+        }
 
         ResponseEntity<Object> shareitServerResponse;
         try {
@@ -95,13 +158,89 @@ public class BaseClient {
         return prepareGatewayResponse(shareitServerResponse);
     }
 
-    private HttpHeaders defaultHeaders(Long userId) {
+    private <T> ResponseEntity<Object> sendPassthroughRequest(HttpMethod method, String path, HttpEntity<T> requestEntity, @Nullable Map<String, Object> parameters) {
+        ResponseEntity<byte[]> shareitServerResponse;
+        try {
+            if (parameters != null) {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class, parameters);
+            } else {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class);
+            }
+        } catch (HttpStatusCodeException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+        }
+        return preparePassthroughResponse(shareitServerResponse);
+    }
+
+    private <T> ResponseEntity<Object> sendStreamingRequest(HttpMethod method, String path, HttpEntity<T> requestEntity,
+                                                            @Nullable Map<String, Object> parameters) throws IOException {
+        URI uri = rest.getUriTemplateHandler().expand(path, parameters != null ? parameters : Map.of());
+        ClientHttpRequest request = rest.getRequestFactory().createRequest(uri, method);
+        rest.httpEntityCallback(requestEntity).doWithRequest(request);
+        ClientHttpResponse response = request.execute();
+
+        try {
+            HttpStatus status = response.getStatusCode();
+            if (!status.is2xxSuccessful() || response.getHeaders().getContentLength() == 0) {
+                try (response) {
+                    return preparePassthroughResponse(new ResponseEntity<>(
+                            StreamUtils.copyToByteArray(response.getBody()), response.getHeaders(), status));
+                }
+            }
+
+            ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(status);
+            copyEndToEndHeaders(response.getHeaders(), responseBuilder);
+            // Соединение возвращается в пул, когда конвертер дочитает и закроет поток
+            InputStream body = new FilterInputStream(response.getBody()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        response.close();
+                    }
+                }
+            };
+            return responseBuilder.body(new InputStreamResource(body));
+        } catch (IOException | RuntimeException e) {
+            response.close();
+            throw e;
+        }
+    }
+
+    // Контроллеры возвращают Mono<ResponseEntity<Object>>, и Spring MVC не умеет писать потоком
+    // тело Flux<DataBuffer> такого ответа, поэтому в реактивном режиме тело читается целиком
+    // и ограничено spring.codec.max-in-memory-size
+    private <T> Mono<ResponseEntity<Object>> sendReactiveRequest(HttpMethod method, String path, HttpHeaders headers, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(requestHeaders -> requestHeaders.addAll(headers));
+        WebClient.RequestHeadersSpec<?> requestWithBody = body != null ? request.bodyValue(body) : request;
+
+        return requestWithBody.exchangeToMono(response -> {
+            HttpStatus status = response.statusCode();
+            if (status.isError()) {
+                return response.bodyToMono(byte[].class)
+                        .defaultIfEmpty(new byte[0])
+                        .map(errorBody -> ResponseEntity.status(status).<Object>body(errorBody));
+            }
+            if (passthrough) {
+                return response.toEntity(byte[].class).map(BaseClient::preparePassthroughResponse);
+            }
+            return response.toEntity(Object.class).map(BaseClient::prepareGatewayResponse);
+        });
+    }
+
+    private HttpHeaders defaultHeaders(Long userId, @Nullable String idempotencyKey) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
         if (userId != null) {
             headers.set("X-Sharer-User-Id", String.valueOf(userId));
         }
+        if (idempotencyKey != null) {
+            headers.set(IDEMPOTENCY_KEY, idempotencyKey);
+        }
         return headers;
     }
 
@@ -118,4 +257,26 @@ public class BaseClient {
 
         return responseBuilder.build();
     }
+
+    private static ResponseEntity<Object> preparePassthroughResponse(ResponseEntity<byte[]> response) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+
+        if (response.getStatusCode().is2xxSuccessful()) {
+            copyEndToEndHeaders(response.getHeaders(), responseBuilder);
+        }
+
+        if (response.hasBody()) {
+            return responseBuilder.body(response.getBody());
+        }
+
+        return responseBuilder.build();
+    }
+
+    private static void copyEndToEndHeaders(HttpHeaders headers, ResponseEntity.BodyBuilder responseBuilder) {
+        headers.forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase())) {
+                responseBuilder.header(name, values.toArray(new String[0]));
+            }
+        });
+    }
 }
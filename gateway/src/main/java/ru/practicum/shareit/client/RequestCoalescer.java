@@ -0,0 +1,57 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+@Component
+public class RequestCoalescer {
+    private final Map<String, Mono<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
+    private final Set<String> routes;
+    private final Map<String, Counter> upstreamCounters = new HashMap<>();
+    private final Map<String, Counter> mergedCounters = new HashMap<>();
+
+    public RequestCoalescer(@Value("${shareit-server.coalescing.routes:}") Set<String> routes,
+                            MeterRegistry meterRegistry) {
+        this.routes = routes;
+        for (String route : routes) {
+            upstreamCounters.put(route, counter(meterRegistry, route, "upstream"));
+            mergedCounters.put(route, counter(meterRegistry, route, "merged"));
+        }
+    }
+
+    public Mono<ResponseEntity<Object>> coalesce(String route, String key,
+                                                 Supplier<Mono<ResponseEntity<Object>>> request) {
+        if (!routes.contains(route)) {
+            return request.get();
+        }
+
+        boolean[] leader = new boolean[1];
+        Mono<ResponseEntity<Object>> shared = inFlight.computeIfAbsent(route + " " + key, inFlightKey -> {
+            leader[0] = true;
+            return request.get()
+                    .doFinally(signal -> inFlight.remove(inFlightKey))
+                    .cache();
+        });
+
+        (leader[0] ? upstreamCounters : mergedCounters).get(route).increment();
+        return shared;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String route, String result) {
+        return Counter.builder("shareit.gateway.coalescing")
+                .description("GET-запросы к серверу, объединённые с уже выполняющимися")
+                .tag("route", route)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
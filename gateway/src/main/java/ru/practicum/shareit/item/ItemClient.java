@@ -4,42 +4,56 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.Map;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
+    private static final String ITEM_BY_ID_ROUTE = "items.by-id";
+    private static final String SEARCH_ROUTE = "items.search";
+
+    private final ItemSearchCache searchCache;
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory shareitServerRequestFactory,
+                      WebClient.Builder webClientBuilder,
+                      ItemSearchCache searchCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                        .requestFactory(() -> shareitServerRequestFactory)
+                        .build(),
+                webClientBuilder
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
                         .build()
         );
+        this.searchCache = searchCache;
     }
 
-    public ResponseEntity<Object> create(long userId, ItemDto itemDto) {
-        return post("", userId, itemDto);
+    public Mono<ResponseEntity<Object>> create(long userId, String idempotencyKey, ItemDto itemDto) {
+        return idempotentPost("", userId, idempotencyKey, itemDto);
     }
 
-    public ResponseEntity<Object> update(long userId, ItemDto itemDto, long itemId) {
+    public Mono<ResponseEntity<Object>> update(long userId, ItemDto itemDto, long itemId) {
         return patch("/" + itemId, userId, itemDto);
     }
 
-    public ResponseEntity<Object> getItemById(long userId, Long itemId) {
-        return get("/" + itemId, userId);
+    public Mono<ResponseEntity<Object>> getItemById(long userId, Long itemId) {
+        return coalescedGet(ITEM_BY_ID_ROUTE, "/" + itemId, userId, null);
     }
 
-    public ResponseEntity<Object> getItemsByOwner(long userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getItemsByOwner(long userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -47,12 +61,38 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getItemsBySearchQuery(String text, Integer from, Integer size) {
-        String path = "/search?text=" + text + "&from=" + from + "&size=" + size;
-        return get(path);
+    public Mono<ResponseEntity<Object>> getItemsBySearchQuery(String text, Integer from, Integer size) {
+        String normalizedText = text.toLowerCase();
+        Map<String, Object> parameters = Map.of(
+                "text", normalizedText,
+                "from", from,
+                "size", size
+        );
+        return searchCache.get(normalizedText, from, size,
+                () -> coalescedGet(SEARCH_ROUTE, "/search?text={text}&from={from}&size={size}", null, parameters));
+    }
+
+    public Mono<ResponseEntity<Object>> getAvailableItemsBySearchQuery(String text, LocalDateTime start, LocalDateTime end,
+                                                                       Integer from, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "text", text.toLowerCase(),
+                "start", start,
+                "end", end,
+                "from", from,
+                "size", size
+        );
+        return get("/search/available?text={text}&start={start}&end={end}&from={from}&size={size}", null, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> getItemAvailability(Long itemId, LocalDateTime start, LocalDateTime end) {
+        Map<String, Object> parameters = Map.of(
+                "start", start,
+                "end", end
+        );
+        return get("/" + itemId + "/availability?start={start}&end={end}", null, parameters);
     }
 
-    public ResponseEntity<Object> createComment(long userId, CommentDto commentDto, Long itemId) {
+    public Mono<ResponseEntity<Object>> createComment(long userId, CommentDto commentDto, Long itemId) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
 }
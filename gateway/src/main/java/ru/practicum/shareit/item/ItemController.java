@@ -2,10 +2,13 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.validation.CreateValidationGroup;
@@ -13,6 +16,7 @@ import ru.practicum.shareit.validation.CreateValidationGroup;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 
 @Controller
 @RequestMapping(path = "/items")
@@ -23,47 +27,66 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader("X-Sharer-User-Id") long userId,
-                                         @Validated(CreateValidationGroup.class) @RequestBody ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> create(@RequestHeader("X-Sharer-User-Id") long userId,
+                                               @RequestHeader(value = BaseClient.IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+                                               @Validated(CreateValidationGroup.class) @RequestBody ItemDto itemDto) {
         log.debug("Получен POST-запрос к эндпоинту: /items на создание новой вещи");
-        return itemClient.create(userId,itemDto);
+        return itemClient.create(userId, idempotencyKey, itemDto);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> update(@RequestHeader("X-Sharer-User-Id") long userId,
-                                         @RequestBody ItemDto itemDto,
-                                         @PathVariable Long itemId) {
+    public Mono<ResponseEntity<Object>> update(@RequestHeader("X-Sharer-User-Id") long userId,
+                                               @RequestBody ItemDto itemDto,
+                                               @PathVariable Long itemId) {
         log.debug("Получен PATCH-запрос к эндпоинту: /items на обновление вещи с id: {}", itemId);
         return itemClient.update(userId, itemDto, itemId);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItemById(@RequestHeader("X-Sharer-User-Id") long userId,
-                                             @PathVariable Long itemId) {
+    public Mono<ResponseEntity<Object>> getItemById(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                    @PathVariable Long itemId) {
         log.debug("Получен GET-запрос к эндпоинту: /items на получение вещи с id: {}", itemId);
         return itemClient.getItemById(userId, itemId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getItemsByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                   @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                   @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> getItemsByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                        @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                        @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
         log.debug("Получен GET-запрос к эндпоинту: /items на получение всех вещей владельца с id: {}", userId);
         return itemClient.getItemsByOwner(userId, from, size);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> getItemsBySearchQuery(@RequestParam String text,
-                                                        @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                        @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> getItemsBySearchQuery(@RequestParam String text,
+                                                              @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
         log.debug("Получен GET-запрос к эндпоинту: /items/search на получение вещи по тексту в описании и/или названии");
         return itemClient.getItemsBySearchQuery(text, from, size);
     }
 
+    @GetMapping("/search/available")
+    public Mono<ResponseEntity<Object>> getAvailableItemsBySearchQuery(@RequestParam String text,
+                                                                       @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                                                       @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                                                       @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                                       @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+        log.debug("Получен GET-запрос к эндпоинту: /items/search/available на получение свободных с {} по {} вещей по тексту", start, end);
+        return itemClient.getAvailableItemsBySearchQuery(text, start, end, from, size);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<Object>> getItemAvailability(@PathVariable Long itemId,
+                                                            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                                            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        log.debug("Получен GET-запрос к эндпоинту: /items/{}/availability на получение занятости вещи с {} по {}", itemId, start, end);
+        return itemClient.getItemAvailability(itemId, start, end);
+    }
+
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> bookItem(@RequestHeader("X-Sharer-User-Id") long userId,
-                                           @RequestBody @Valid CommentDto commentDto,
-                                           @PathVariable Long itemId) {
+    public Mono<ResponseEntity<Object>> bookItem(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                 @RequestBody @Valid CommentDto commentDto,
+                                                 @PathVariable Long itemId) {
         log.debug("Получен POST-запрос к эндпоинту: /items/{}/comment на создание отзыва", itemId);
         return itemClient.createComment(userId, commentDto, itemId);
     }
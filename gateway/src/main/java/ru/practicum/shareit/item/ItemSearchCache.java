@@ -0,0 +1,61 @@
+package ru.practicum.shareit.item;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+@Component
+public class ItemSearchCache {
+    private static final int ENTRY_OVERHEAD = 256;
+
+    private final Cache<String, CachedResponse> cache;
+
+    public ItemSearchCache(@Value("${shareit-server.search-cache.ttl:5000}") long ttl,
+                           @Value("${shareit-server.search-cache.max-bytes:16777216}") long maxBytes,
+                           MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(ttl))
+                .maximumWeight(maxBytes)
+                .weigher((String key, CachedResponse cached) -> cached.weight)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "itemSearch");
+    }
+
+    public Mono<ResponseEntity<Object>> get(String text, Integer from, Integer size,
+                                            Supplier<Mono<ResponseEntity<Object>>> request) {
+        String key = text + "|" + from + "|" + size;
+        CachedResponse cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return Mono.just(cached.response);
+        }
+        return request.get()
+                .doOnNext(response -> {
+                    if (response.getStatusCode().is2xxSuccessful() && response.getBody() instanceof byte[]) {
+                        cache.put(key, new CachedResponse(response, weigh(key, (byte[]) response.getBody())));
+                    }
+                });
+    }
+
+    private static int weigh(String key, byte[] body) {
+        return (int) Math.min(Integer.MAX_VALUE, ENTRY_OVERHEAD + key.length() * 2L + body.length);
+    }
+
+    private static final class CachedResponse {
+        private final ResponseEntity<Object> response;
+        private final int weight;
+
+        private CachedResponse(ResponseEntity<Object> response, int weight) {
+            this.response = response;
+            this.weight = weight;
+        }
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
@@ -20,29 +21,29 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader("X-Sharer-User-Id") long userId,
-                                         @RequestBody @Valid ItemRequestDto itemRequestDto) {
+    public Mono<ResponseEntity<Object>> create(@RequestHeader("X-Sharer-User-Id") long userId,
+                                               @RequestBody @Valid ItemRequestDto itemRequestDto) {
         log.debug("Получен POST-запрос к эндпоинту: /requests на создание запроса от пользователя с id: {}", userId);
         return itemRequestClient.create(userId, itemRequestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getOwnItemRequests(@RequestHeader("X-Sharer-User-Id") long userId) {
+    public Mono<ResponseEntity<Object>> getOwnItemRequests(@RequestHeader("X-Sharer-User-Id") long userId) {
         log.debug("Получен GET-запрос к эндпоинту: /requests на получение списка всех запросов пользователя с id: {}", userId);
         return itemRequestClient.getOwnItemRequests(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllItemRequests(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                     @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                     @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> getAllItemRequests(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                           @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                           @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
         log.debug("Получен GET-запрос к эндпоинту: /requests/all на получение списка всех запросов от пользователя с id: {}", userId);
         return itemRequestClient.getAllItemRequests(userId, from, size);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getItemRequestById(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                     @PathVariable Long requestId) {
+    public Mono<ResponseEntity<Object>> getItemRequestById(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                           @PathVariable Long requestId) {
         log.debug("Получен GET-запрос к эндпоинту: /requests/{requestId} на получение запроса с id: {}", requestId);
         return itemRequestClient.getItemRequestById(userId, requestId);
     }
@@ -0,0 +1,75 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class IdempotencyKeyForwardingTest {
+    private static final List<String> receivedKeys = new CopyOnWriteArrayList<>();
+    private static HttpServer shareitServer;
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void shareitServerProperties(DynamicPropertyRegistry registry) throws IOException {
+        shareitServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        shareitServer.createContext("/", exchange -> {
+            receivedKeys.add(String.valueOf(exchange.getRequestHeaders().getFirst("Idempotency-Key")));
+            byte[] body = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+            exchange.close();
+        });
+        shareitServer.start();
+        registry.add("shareit-server.url", () -> "http://localhost:" + shareitServer.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopShareitServer() {
+        shareitServer.stop(0);
+    }
+
+    @Test
+    void shouldForwardIdempotencyKeyOfBookingAndItemCreation() throws Exception {
+        send("/bookings", "{\"itemId\":1,\"start\":\"2100-01-01T10:00:00\",\"end\":\"2100-01-02T10:00:00\"}", "booking-key");
+        send("/items", "{\"name\":\"Дрель\",\"description\":\"Аккумуляторная дрель\",\"available\":true}", "item-key");
+        send("/items", "{\"name\":\"Пила\",\"description\":\"Ручная пила\",\"available\":true}", null);
+
+        assertEquals(List.of("booking-key", "item-key", "null"), receivedKeys);
+    }
+
+    private void send(String path, String body, String idempotencyKey) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json")
+                .header("X-Sharer-User-Id", "1")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (idempotencyKey != null) {
+            request.header("Idempotency-Key", idempotencyKey);
+        }
+
+        HttpResponse<String> response = HttpClient.newHttpClient().send(request.build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), response.body());
+    }
+}
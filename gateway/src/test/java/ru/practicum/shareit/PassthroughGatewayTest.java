@@ -0,0 +1,133 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "shareit-server.passthrough=true",
+        "shareit-server.reactive=false"
+})
+class PassthroughGatewayTest {
+    private static final byte[] LARGE_BODY = largeBody();
+    private static final byte[] ITEM_BODY = "{\"id\":1,\"name\":\"Дрель\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NOT_FOUND_BODY = "{\"error\":\"Пользователь с id 2 не найден\"}".getBytes(StandardCharsets.UTF_8);
+    private static HttpServer shareitServer;
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void shareitServerProperties(DynamicPropertyRegistry registry) throws IOException {
+        shareitServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        shareitServer.createContext("/users/1", exchange -> respond(exchange, 200, LARGE_BODY, true));
+        shareitServer.createContext("/users/2", exchange -> respond(exchange, 404, NOT_FOUND_BODY, true));
+        shareitServer.createContext("/items/1", exchange -> respond(exchange, 200, ITEM_BODY, true));
+        shareitServer.createContext("/users", exchange -> respond(exchange, 204, null, false));
+        shareitServer.start();
+        registry.add("shareit-server.url", () -> "http://localhost:" + shareitServer.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopShareitServer() {
+        shareitServer.stop(0);
+    }
+
+    @Test
+    void shouldStreamBodyAndEndToEndHeaders() throws Exception {
+        HttpResponse<byte[]> response = send("/users/1", "GET");
+
+        assertEquals(200, response.statusCode());
+        assertArrayEquals(LARGE_BODY, response.body());
+        assertEquals(Optional.of("application/json"), response.headers().firstValue("Content-Type"));
+        assertEquals(Optional.of("cursor-1"), response.headers().firstValue("X-Next-Cursor"));
+        assertHopByHopHeadersStripped(response);
+    }
+
+    @Test
+    void shouldKeepBufferedBodyOfCoalescedRequest() throws Exception {
+        HttpResponse<byte[]> response = send("/items/1", "GET");
+
+        assertEquals(200, response.statusCode());
+        assertArrayEquals(ITEM_BODY, response.body());
+        assertEquals(Optional.of("cursor-1"), response.headers().firstValue("X-Next-Cursor"));
+        assertHopByHopHeadersStripped(response);
+    }
+
+    @Test
+    void shouldKeepErrorStatusAndBody() throws Exception {
+        HttpResponse<byte[]> response = send("/users/2", "GET");
+
+        assertEquals(404, response.statusCode());
+        assertArrayEquals(NOT_FOUND_BODY, response.body());
+        assertFalse(response.headers().firstValue("X-Next-Cursor").isPresent());
+    }
+
+    @Test
+    void shouldKeepEmptySuccessfulResponse() throws Exception {
+        HttpResponse<byte[]> response = send("/users/3", "DELETE");
+
+        assertEquals(204, response.statusCode());
+        assertEquals(0, response.body().length);
+    }
+
+    private HttpResponse<byte[]> send(String path, String method) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("X-Sharer-User-Id", "1")
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .build();
+        return HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static void assertHopByHopHeadersStripped(HttpResponse<byte[]> response) {
+        assertTrue(response.headers().allValues("Keep-Alive").stream().noneMatch(value -> value.contains("timeout=1234")));
+        assertFalse(response.headers().firstValue("Proxy-Authenticate").isPresent());
+        assertFalse(response.headers().firstValue("Upgrade").isPresent());
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body, boolean withHeaders) throws IOException {
+        if (withHeaders) {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.getResponseHeaders().set("X-Next-Cursor", "cursor-1");
+            exchange.getResponseHeaders().set("Keep-Alive", "timeout=1234");
+            exchange.getResponseHeaders().set("Proxy-Authenticate", "Basic realm=\"shareit\"");
+            exchange.getResponseHeaders().set("Upgrade", "h2c");
+        }
+        exchange.sendResponseHeaders(status, body != null ? body.length : -1);
+        if (body != null) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+        exchange.close();
+    }
+
+    private static byte[] largeBody() {
+        byte[] body = new byte[4 * 1024 * 1024];
+        Arrays.fill(body, (byte) 'a');
+        body[0] = '"';
+        body[body.length - 1] = '"';
+        return body;
+    }
+}
@@ -0,0 +1,92 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.tomcat.threads.max=4",
+        "server.tomcat.threads.min-spare=2",
+        "shareit-server.reactive=true"
+})
+class ReactiveGatewayLoadTest {
+    private static final int TOMCAT_THREADS = 4;
+    private static final int REQUESTS = 50;
+    private static final long SERVER_DELAY = 500;
+
+    private static final AtomicInteger inFlight = new AtomicInteger();
+    private static final AtomicInteger peakInFlight = new AtomicInteger();
+    private static HttpServer shareitServer;
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void shareitServerProperties(DynamicPropertyRegistry registry) throws IOException {
+        shareitServer = HttpServer.create(new InetSocketAddress("localhost", 0), REQUESTS);
+        shareitServer.setExecutor(Executors.newFixedThreadPool(REQUESTS));
+        shareitServer.createContext("/users", exchange -> {
+            peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(SERVER_DELAY);
+                byte[] body = "{\"id\":1,\"name\":\"User\",\"email\":\"user@user.com\"}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+                exchange.close();
+            }
+        });
+        shareitServer.start();
+        registry.add("shareit-server.url", () -> "http://localhost:" + shareitServer.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopShareitServer() {
+        shareitServer.stop(0);
+    }
+
+    @Test
+    void shouldNotHoldTomcatThreadsWhileWaitingForServer() {
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newFixedThreadPool(REQUESTS))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users/1")).build();
+
+        List<CompletableFuture<HttpResponse<String>>> responses = IntStream.range(0, REQUESTS)
+                .mapToObj(i -> client.sendAsync(request, HttpResponse.BodyHandlers.ofString()))
+                .collect(Collectors.toList());
+        CompletableFuture.allOf(responses.toArray(new CompletableFuture[0])).join();
+
+        responses.forEach(response -> assertEquals(200, response.join().statusCode()));
+        assertTrue(peakInFlight.get() > TOMCAT_THREADS,
+                "Одновременных запросов к серверу: " + peakInFlight.get());
+    }
+}
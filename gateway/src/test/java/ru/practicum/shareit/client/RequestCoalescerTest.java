@@ -0,0 +1,100 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class RequestCoalescerTest {
+    private SimpleMeterRegistry meterRegistry;
+    private RequestCoalescer coalescer;
+    private AtomicInteger upstreamCalls;
+    private Sinks.One<ResponseEntity<Object>> response;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new RequestCoalescer(Set.of("items.by-id"), meterRegistry);
+        upstreamCalls = new AtomicInteger();
+        response = Sinks.one();
+    }
+
+    @Test
+    void shouldShareInFlightRequestWithSameKey() {
+        CompletableFuture<ResponseEntity<Object>> first = coalescer.coalesce("items.by-id", "/1 1", this::upstream).toFuture();
+        CompletableFuture<ResponseEntity<Object>> second = coalescer.coalesce("items.by-id", "/1 1", this::upstream).toFuture();
+
+        response.tryEmitValue(ResponseEntity.ok("item"));
+
+        assertEquals(1, upstreamCalls.get());
+        assertSame(first.join(), second.join());
+        assertEquals(1, meterRegistry.counter("shareit.gateway.coalescing", "route", "items.by-id", "result", "upstream").count());
+        assertEquals(1, meterRegistry.counter("shareit.gateway.coalescing", "route", "items.by-id", "result", "merged").count());
+    }
+
+    @Test
+    void shouldNotShareRequestsWithDifferentKeys() {
+        coalescer.coalesce("items.by-id", "/1 1", this::upstream).subscribe();
+        coalescer.coalesce("items.by-id", "/1 2", this::upstream).subscribe();
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void shouldSendNewRequestAfterPreviousCompleted() {
+        response.tryEmitValue(ResponseEntity.ok("item"));
+        coalescer.coalesce("items.by-id", "/1 1", this::upstream).block();
+        coalescer.coalesce("items.by-id", "/1 1", this::upstream).block();
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void shouldNotCoalesceRoutesWithoutOptIn() {
+        coalescer.coalesce("items.search", "/search?text=дрель", this::upstream).subscribe();
+        coalescer.coalesce("items.search", "/search?text=дрель", this::upstream).subscribe();
+
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(0, meterRegistry.find("shareit.gateway.coalescing").tag("route", "items.search").counters().size());
+    }
+
+    @Test
+    void shouldRegisterCountersOfConfiguredRoutesUpFront() {
+        assertEquals(0, meterRegistry.counter("shareit.gateway.coalescing", "route", "items.by-id", "result", "upstream").count());
+        assertEquals(0, meterRegistry.counter("shareit.gateway.coalescing", "route", "items.by-id", "result", "merged").count());
+        assertEquals(2, meterRegistry.getMeters().size());
+    }
+
+    @Test
+    void shouldBuildKeyFromExpandedUri() {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("text", "дрель");
+        parameters.put("from", 0);
+        Map<String, Object> reordered = new LinkedHashMap<>();
+        reordered.put("from", 0);
+        reordered.put("text", "дрель");
+
+        assertEquals("/search?text=дрель&from=0 null", BaseClient.coalescingKey("/search?text={text}&from={from}", null, parameters));
+        assertEquals(BaseClient.coalescingKey("/search?text={text}&from={from}", null, parameters),
+                BaseClient.coalescingKey("/search?text={text}&from={from}", null, reordered));
+        assertEquals("/1 2", BaseClient.coalescingKey("/1", 2L, null));
+    }
+
+    private Mono<ResponseEntity<Object>> upstream() {
+        return Mono.defer(() -> {
+            upstreamCalls.incrementAndGet();
+            return response.asMono();
+        });
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemSearchCacheTest {
+    private SimpleMeterRegistry meterRegistry;
+    private ItemSearchCache searchCache;
+    private AtomicInteger upstreamCalls;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        searchCache = new ItemSearchCache(60_000, 1024 * 1024, meterRegistry);
+        upstreamCalls = new AtomicInteger();
+    }
+
+    @Test
+    void shouldReturnCachedResponseForSameQuery() {
+        searchCache.get("дрель", 0, 10, () -> upstream(HttpStatus.OK)).block();
+        ResponseEntity<Object> response = searchCache.get("дрель", 0, 10, () -> upstream(HttpStatus.OK)).block();
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, meterRegistry.get("cache.gets").tags("cache", "itemSearch", "result", "hit").functionCounter().count());
+        assertEquals(1, meterRegistry.get("cache.gets").tags("cache", "itemSearch", "result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void shouldNotShareResponseBetweenPages() {
+        searchCache.get("дрель", 0, 10, () -> upstream(HttpStatus.OK)).block();
+        searchCache.get("дрель", 10, 10, () -> upstream(HttpStatus.OK)).block();
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void shouldNotCacheErrorResponse() {
+        searchCache.get("дрель", 0, 10, () -> upstream(HttpStatus.INTERNAL_SERVER_ERROR)).block();
+        searchCache.get("дрель", 0, 10, () -> upstream(HttpStatus.INTERNAL_SERVER_ERROR)).block();
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void shouldNotCacheResponseWithoutRawBody() {
+        searchCache.get("дрель", 0, 10, () -> upstream(HttpStatus.OK, "[]")).block();
+        searchCache.get("дрель", 0, 10, () -> upstream(HttpStatus.OK, "[]")).block();
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    private Mono<ResponseEntity<Object>> upstream(HttpStatus status) {
+        return upstream(status, "[]".getBytes());
+    }
+
+    private Mono<ResponseEntity<Object>> upstream(HttpStatus status, Object body) {
+        return Mono.fromCallable(() -> {
+            upstreamCalls.incrementAndGet();
+            return ResponseEntity.status(status).body(body);
+        });
+    }
+}
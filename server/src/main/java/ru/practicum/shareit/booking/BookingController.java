@@ -2,25 +2,34 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.InputBookingDto;
+import ru.practicum.shareit.idempotency.IdempotencyStore;
 
 import java.util.List;
 
+import static ru.practicum.shareit.idempotency.IdempotencyStore.IDEMPOTENCY_KEY;
+
 @RestController
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
 @Slf4j
 public class BookingController {
     private final BookingService bookingService;
+    private final IdempotencyStore idempotencyStore;
     private static final String USER = "X-Sharer-User-Id";
+    private static final String NEXT_CURSOR = "X-Next-Cursor";
 
     @PostMapping
     public BookingDto create(@RequestHeader(USER) Long bookerId,
+                             @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
                              @RequestBody InputBookingDto inputBookingDto) {
         log.debug("Получен POST-запрос к эндпоинту: /bookings на создание бронирования от пользователя с id: {}", bookerId);
-        return bookingService.create(bookerId, inputBookingDto);
+        return idempotencyStore.execute("bookings", bookerId, idempotencyKey, inputBookingDto,
+                () -> bookingService.create(bookerId, inputBookingDto));
     }
 
     @PatchMapping("/{bookingId}")
@@ -55,4 +64,31 @@ public class BookingController {
         log.debug("Получен GET-запрос к эндпоинту: /bookings на получение списка бронирований для всех вещей пользователя с id: {}", ownerId);
         return bookingService.getOwnerBookings(ownerId, state, from, size);
     }
+
+    @GetMapping(params = "cursor")
+    public ResponseEntity<List<BookingDto>> getAllUserBookingsByCursor(@RequestHeader(USER) Long userId,
+                                                                       @RequestParam(name = "state", defaultValue = "ALL") String state,
+                                                                       @RequestParam String cursor,
+                                                                       @RequestParam(defaultValue = "10") Integer size) {
+        log.debug("Получен GET-запрос к эндпоинту: /bookings на получение списка всех бронирований пользователя с id: {} по курсору", userId);
+        return toCursorResponse(bookingService.getAllUserBookings(userId, state, cursor, size));
+    }
+
+    @GetMapping(path = "/owner", params = "cursor")
+    public ResponseEntity<List<BookingDto>> getOwnerBookingsByCursor(@RequestHeader(USER) Long ownerId,
+                                                                     @RequestParam(name = "state", defaultValue = "ALL") String state,
+                                                                     @RequestParam String cursor,
+                                                                     @RequestParam(defaultValue = "10") Integer size) {
+        log.debug("Получен GET-запрос к эндпоинту: /bookings на получение списка бронирований для всех вещей пользователя с id: {} по курсору", ownerId);
+        return toCursorResponse(bookingService.getOwnerBookings(ownerId, state, cursor, size));
+    }
+
+    private static ResponseEntity<List<BookingDto>> toCursorResponse(Slice<BookingDto> bookings) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (bookings.hasNext()) {
+            BookingDto last = bookings.getContent().get(bookings.getNumberOfElements() - 1);
+            response.header(NEXT_CURSOR, new BookingCursor(last.getStart(), last.getId()).encode());
+        }
+        return response.body(bookings.getContent());
+    }
 }
@@ -0,0 +1,116 @@
+package ru.practicum.shareit.booking;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+import static ru.practicum.shareit.util.TransactionUtils.afterCommit;
+
+@Component
+public class BookingIntervalIndex {
+    public static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, ItemIntervals> items;
+
+    public BookingIntervalIndex(BookingRepository bookingRepository,
+                                @Value("${shareit.booking-index.max-items:10000}") long maxItems,
+                                @Value("${shareit.booking-index.ttl:600000}") long ttl) {
+        this.bookingRepository = bookingRepository;
+        this.items = Caffeine.newBuilder()
+                .maximumSize(maxItems)
+                .expireAfterWrite(Duration.ofMillis(ttl))
+                .build();
+    }
+
+    public boolean overlaps(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return items.get(itemId, this::load).overlaps(start, end);
+    }
+
+    public void add(Booking booking) {
+        Interval interval = new Interval(booking.getId(), booking.getStart(), booking.getEnd());
+        afterCommit(() -> {
+            ItemIntervals intervals = items.getIfPresent(booking.getItem().getId());
+            if (intervals != null) {
+                intervals.add(interval);
+            }
+        });
+    }
+
+    public void remove(Booking booking) {
+        Interval interval = new Interval(booking.getId(), booking.getStart(), booking.getEnd());
+        afterCommit(() -> {
+            ItemIntervals intervals = items.getIfPresent(booking.getItem().getId());
+            if (intervals != null) {
+                intervals.remove(interval);
+            }
+        });
+    }
+
+    public void invalidate(Long itemId) {
+        items.invalidate(itemId);
+    }
+
+    private ItemIntervals load(Long itemId) {
+        ItemIntervals intervals = new ItemIntervals();
+        bookingRepository.findActiveByItemId(itemId, ACTIVE_STATUSES, LocalDateTime.now())
+                .forEach(booking -> intervals.add(new Interval(booking.getId(), booking.getStart(), booking.getEnd())));
+        return intervals;
+    }
+
+    private static class ItemIntervals {
+        private final NavigableSet<Interval> intervals = new TreeSet<>(Comparator
+                .comparing((Interval interval) -> interval.start)
+                .thenComparing(interval -> interval.id));
+
+        private Duration longest = Duration.ZERO;
+
+        synchronized boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            LocalDateTime earliestStart = start.minus(longest);
+            for (Interval interval : intervals.subSet(new Interval(Long.MIN_VALUE, earliestStart, earliestStart), true,
+                    new Interval(Long.MIN_VALUE, end, end), false)) {
+                if (interval.end.isAfter(start)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        synchronized void add(Interval interval) {
+            intervals.add(interval);
+            Duration duration = Duration.between(interval.start, interval.end);
+            if (duration.compareTo(longest) > 0) {
+                longest = duration;
+            }
+        }
+
+        synchronized void remove(Interval interval) {
+            if (intervals.remove(interval) && Duration.between(interval.start, interval.end).compareTo(longest) >= 0) {
+                longest = intervals.stream()
+                        .map(remaining -> Duration.between(remaining.start, remaining.end))
+                        .max(Comparator.naturalOrder())
+                        .orElse(Duration.ZERO);
+            }
+        }
+    }
+
+    private static class Interval {
+        private final Long id;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        Interval(Long id, LocalDateTime start, LocalDateTime end) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
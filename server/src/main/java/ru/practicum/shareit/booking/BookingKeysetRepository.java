@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+import java.time.LocalDateTime;
+
+public interface BookingKeysetRepository {
+    Slice<BookingDto> findByBookerIdAfterCursor(Long userId, BookingState state, BookingCursor cursor, LocalDateTime now, int size);
+
+    Slice<BookingDto> findByItemOwnerIdAfterCursor(Long ownerId, BookingState state, BookingCursor cursor, LocalDateTime now, int size);
+}
@@ -0,0 +1,92 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+public class BookingKeysetRepositoryImpl implements BookingKeysetRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<BookingDto> findByBookerIdAfterCursor(Long userId, BookingState state, BookingCursor cursor,
+                                                       LocalDateTime now, int size) {
+        return findAfterCursor((booking, item) -> booking.get("booker").get("id"), userId, state, cursor, now, size);
+    }
+
+    @Override
+    public Slice<BookingDto> findByItemOwnerIdAfterCursor(Long ownerId, BookingState state, BookingCursor cursor,
+                                                          LocalDateTime now, int size) {
+        return findAfterCursor((booking, item) -> item.get("owner").get("id"), ownerId, state, cursor, now, size);
+    }
+
+    private Slice<BookingDto> findAfterCursor(BiFunction<Root<Booking>, Join<Booking, Item>, Path<Long>> userIdPath, Long userId,
+                                              BookingState state, BookingCursor cursor, LocalDateTime now, int size) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingDto> query = cb.createQuery(BookingDto.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Join<Booking, Item> item = booking.join("item");
+        Join<Booking, User> booker = booking.join("booker");
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        Path<Long> id = booking.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(userIdPath.apply(booking, item), userId));
+        switch (state) {
+            case CURRENT:
+                predicates.add(cb.lessThan(start, now));
+                predicates.add(cb.greaterThan(end, now));
+                break;
+            case PAST:
+                predicates.add(cb.lessThan(end, now));
+                break;
+            case FUTURE:
+                predicates.add(cb.greaterThan(start, now));
+                break;
+            case WAITING:
+                predicates.add(cb.equal(booking.get("status"), BookingStatus.WAITING));
+                break;
+            case REJECTED:
+                predicates.add(cb.equal(booking.get("status"), BookingStatus.REJECTED));
+                break;
+            case ALL:
+                break;
+        }
+        if (cursor != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(start, cursor.getStart()),
+                    cb.and(cb.equal(start, cursor.getStart()), cb.lessThan(id, cursor.getId()))));
+        }
+
+        query.select(cb.construct(BookingDto.class,
+                        id, start, end,
+                        item.get("id"), item.get("name"), item.get("description"), item.get("available"),
+                        booker.get("id"), booker.get("name"), booker.get("email"),
+                        booking.get("status")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(start), cb.desc(id));
+        List<BookingDto> bookings = entityManager.createQuery(query)
+                .setMaxResults(size + 1)
+                .getResultList();
+
+        boolean hasNext = bookings.size() > size;
+        return new SliceImpl<>(hasNext ? bookings.subList(0, size) : bookings, PageRequest.of(0, size), hasNext);
+    }
+}
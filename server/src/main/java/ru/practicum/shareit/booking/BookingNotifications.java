@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+public class BookingNotifications {
+    @EventListener
+    public void onBookingTransition(BookingTransitionEvent event) {
+        if (event.getStatus() != BookingStatus.APPROVED) {
+            return;
+        }
+        if (event.getType() == BookingTransitionEvent.Type.STARTED) {
+            log.info("Началось бронирование с ID={} вещи с ID={}", event.getBookingId(), event.getItemId());
+        } else {
+            log.info("Завершилось бронирование с ID={} вещи с ID={}", event.getBookingId(), event.getItemId());
+        }
+    }
+}
@@ -1,35 +1,99 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingDto;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    Page<Booking> findByBookerIdAndStartIsBeforeAndEndIsAfter(Long userId, LocalDateTime start, LocalDateTime end, Pageable pageable);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingKeysetRepository {
+    String BOOKING_DTO_QUERY = "SELECT new ru.practicum.shareit.booking.dto.BookingDto(" +
+            "b.id, b.start, b.end, i.id, i.name, i.description, i.available, u.id, u.name, u.email, b.status) " +
+            "FROM Booking b JOIN b.item i JOIN b.booker u ";
 
-    Page<Booking> findByBookerIdAndEndBefore(Long userId, LocalDateTime end, Pageable pageable);
+    @Query(BOOKING_DTO_QUERY + "WHERE u.id = :userId AND b.start < :start AND b.end > :end")
+    Slice<BookingDto> findByBookerIdAndStartIsBeforeAndEndIsAfter(@Param("userId") Long userId, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end, Pageable pageable);
 
-    Page<Booking> findByBookerIdAndStartAfter(Long userId, LocalDateTime start, Pageable pageable);
+    @Query(BOOKING_DTO_QUERY + "WHERE u.id = :userId AND b.end < :end")
+    Slice<BookingDto> findByBookerIdAndEndBefore(@Param("userId") Long userId, @Param("end") LocalDateTime end, Pageable pageable);
 
-    Page<Booking> findByBookerIdAndStatus(Long userId, BookingStatus status, Pageable pageable);
+    @Query(BOOKING_DTO_QUERY + "WHERE u.id = :userId AND b.start > :start")
+    Slice<BookingDto> findByBookerIdAndStartAfter(@Param("userId") Long userId, @Param("start") LocalDateTime start, Pageable pageable);
 
-    Page<Booking> findByBookerId(Long userId, Pageable pageable);
+    @Query(BOOKING_DTO_QUERY + "WHERE u.id = :userId AND b.status = :status")
+    Slice<BookingDto> findByBookerIdAndStatus(@Param("userId") Long userId, @Param("status") BookingStatus status, Pageable pageable);
 
-    Page<Booking> findByItemOwnerIdAndStartIsBeforeAndEndAfter(Long ownerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
+    @Query(BOOKING_DTO_QUERY + "WHERE u.id = :userId")
+    Slice<BookingDto> findByBookerId(@Param("userId") Long userId, Pageable pageable);
 
-    Page<Booking> findByItemOwnerIdAndEndBefore(Long ownerId, LocalDateTime end, Pageable pageable);
+    @Query(BOOKING_DTO_QUERY + "WHERE i.owner.id = :ownerId AND b.start < :start AND b.end > :end")
+    Slice<BookingDto> findByItemOwnerIdAndStartIsBeforeAndEndAfter(@Param("ownerId") Long ownerId, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end, Pageable pageable);
 
-    Page<Booking> findByItemOwnerIdAndStartAfter(Long ownerId, LocalDateTime start, Pageable pageable);
+    @Query(BOOKING_DTO_QUERY + "WHERE i.owner.id = :ownerId AND b.end < :end")
+    Slice<BookingDto> findByItemOwnerIdAndEndBefore(@Param("ownerId") Long ownerId, @Param("end") LocalDateTime end, Pageable pageable);
 
-    Page<Booking> findByItemOwnerIdAndStatus(Long ownerId, BookingStatus status, Pageable pageable);
+    @Query(BOOKING_DTO_QUERY + "WHERE i.owner.id = :ownerId AND b.start > :start")
+    Slice<BookingDto> findByItemOwnerIdAndStartAfter(@Param("ownerId") Long ownerId, @Param("start") LocalDateTime start, Pageable pageable);
 
-    Page<Booking> findByItemOwnerId(Long ownerId, Pageable pageable);
+    @Query(BOOKING_DTO_QUERY + "WHERE i.owner.id = :ownerId AND b.status = :status")
+    Slice<BookingDto> findByItemOwnerIdAndStatus(@Param("ownerId") Long ownerId, @Param("status") BookingStatus status, Pageable pageable);
+
+    @Query(BOOKING_DTO_QUERY + "WHERE i.owner.id = :ownerId")
+    Slice<BookingDto> findByItemOwnerId(@Param("ownerId") Long ownerId, Pageable pageable);
 
     Booking findFirstByItem_IdAndStartBeforeOrderByEndDesc(Long itemId, LocalDateTime startTime);
 
     Booking findFirstByItem_IdAndStartAfterAndStatusOrderByStartAsc(Long itemId, LocalDateTime startTime, BookingStatus status);
 
     Booking findFirstByItem_IdAndBooker_IdAndEndIsBeforeAndStatus(Long itemId, Long userId, LocalDateTime end, BookingStatus status);
+
+    @Query(value = "SELECT * FROM (" +
+            "SELECT b.*, ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.end_date DESC) AS rn " +
+            "FROM bookings b WHERE b.item_id IN (:itemIds) AND b.start_date < :now" +
+            ") AS last_bookings WHERE last_bookings.rn = 1 " +
+            "UNION ALL " +
+            "SELECT * FROM (" +
+            "SELECT b.*, ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date) AS rn " +
+            "FROM bookings b WHERE b.item_id IN (:itemIds) AND b.start_date > :now AND b.status = 'APPROVED'" +
+            ") AS next_bookings WHERE next_bookings.rn = 1",
+            nativeQuery = true)
+    List<Booking> findLastAndNextByItemIds(@Param("itemIds") List<Long> itemIds, @Param("now") LocalDateTime now);
+
+    @Query("SELECT b FROM Booking b WHERE b.item.id = :itemId AND b.status IN :statuses AND b.end > :now")
+    List<Booking> findActiveByItemId(@Param("itemId") Long itemId, @Param("statuses") List<BookingStatus> statuses, @Param("now") LocalDateTime now);
+
+    @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.item.id = :itemId " +
+            "AND b.status IN :statuses AND b.start < :end AND b.end > :start")
+    boolean existsOverlappingForItem(@Param("itemId") Long itemId, @Param("statuses") List<BookingStatus> statuses,
+                                     @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.item.id = :itemId AND b.id <> :bookingId " +
+            "AND b.status IN :statuses AND b.start < :end AND b.end > :start")
+    boolean existsOverlapping(@Param("itemId") Long itemId, @Param("bookingId") Long bookingId, @Param("statuses") List<BookingStatus> statuses,
+                              @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Query("SELECT b FROM Booking b WHERE b.item.id = :itemId AND b.status IN :statuses " +
+            "AND b.start < :end AND b.end > :start ORDER BY b.start")
+    List<Booking> findOverlapping(@Param("itemId") Long itemId, @Param("statuses") List<BookingStatus> statuses,
+                                  @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = :status, b.version = b.version + 1 " +
+            "WHERE b.id = :bookingId AND b.version = :version AND b.status = :expected")
+    int updateStatus(@Param("bookingId") Long bookingId, @Param("version") Long version,
+                     @Param("expected") BookingStatus expected, @Param("status") BookingStatus status);
+
+    @Query("SELECT b FROM Booking b WHERE b.id > :afterBookingId AND b.status IN :statuses AND b.end > :now ORDER BY b.id")
+    List<Booking> findUpcomingAfter(@Param("afterBookingId") Long afterBookingId, @Param("statuses") List<BookingStatus> statuses,
+                                    @Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query("SELECT b.item.id, MIN(b.start) FROM Booking b " +
+            "WHERE b.item.id IN :itemIds AND b.status IN :statuses AND b.start > :now GROUP BY b.item.id")
+    List<Object[]> findNextStartsByItemIds(@Param("itemIds") List<Long> itemIds, @Param("statuses") List<BookingStatus> statuses,
+                                           @Param("now") LocalDateTime now);
 }
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.data.domain.Slice;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.InputBookingDto;
 
@@ -15,4 +16,8 @@ public interface BookingService {
     List<BookingDto> getAllUserBookings(Long userId, String state, Integer from, Integer size);
 
     List<BookingDto> getOwnerBookings(Long ownerId, String state, Integer from, Integer size);
+
+    Slice<BookingDto> getAllUserBookings(Long userId, String state, String cursor, Integer size);
+
+    Slice<BookingDto> getOwnerBookings(Long ownerId, String state, String cursor, Integer size);
 }
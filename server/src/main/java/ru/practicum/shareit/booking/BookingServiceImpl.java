@@ -2,20 +2,26 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.InputBookingDto;
+import ru.practicum.shareit.exeption.ConflictException;
 import ru.practicum.shareit.exeption.NotFoundException;
 import ru.practicum.shareit.exeption.ValidationException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.pointer.ItemBookingPointers;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceIndex;
 import ru.practicum.shareit.user.UserRepository;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -28,9 +34,17 @@ import static ru.practicum.shareit.booking.BookingState.toBookingState;
 @RequiredArgsConstructor
 @Slf4j
 public class BookingServiceImpl implements BookingService {
+    private static final String OVERLAP_CONSTRAINT = "bookings_item_period_excl";
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserExistenceIndex userExistenceIndex;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemBookingLocks itemBookingLocks;
+    private final ItemBookingPointers itemBookingPointers;
+    private final BookingTimer bookingTimer;
 
     @Transactional
     @Override
@@ -53,8 +67,29 @@ public class BookingServiceImpl implements BookingService {
         if (!item.getAvailable()) {
             throw new ValidationException("Вещь с ID=" + item.getId() + " в данный момент не доступна для бронирования");
         }
+        itemBookingLocks.lock(item.getId());
+        boolean indexedOverlap = bookingIntervalIndex.overlaps(item.getId(), booking.getStart(), booking.getEnd());
+        boolean storedOverlap = bookingRepository.existsOverlappingForItem(item.getId(), BookingIntervalIndex.ACTIVE_STATUSES,
+                booking.getStart(), booking.getEnd());
+        if (indexedOverlap != storedOverlap) {
+            log.debug("Интервалы бронирований вещи с ID={} в кэше устарели", item.getId());
+            bookingIntervalIndex.invalidate(item.getId());
+        }
+        if (storedOverlap) {
+            throw new ValidationException("Вещь с ID=" + item.getId() + " уже забронирована на указанное время");
+        }
 
-        bookingRepository.save(booking);
+        try {
+            bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlapViolation(e)) {
+                throw new ValidationException("Вещь с ID=" + item.getId() + " уже забронирована на указанное время");
+            }
+            throw e;
+        }
+        bookingIntervalIndex.add(booking);
+        itemBookingPointers.refresh(item.getId());
+        bookingTimer.schedule(booking, booking.getStatus());
         log.info("Добавлено новое бронирование: {}", booking);
 
         return toBookingDto(booking);
@@ -63,37 +98,53 @@ public class BookingServiceImpl implements BookingService {
     @Transactional
     @Override
     public BookingDto update(Long userId, Boolean approved, Long bookingId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с ID=" + userId + " не найден!"));
+        if (!userExistenceIndex.exists(userId)) {
+            throw new NotFoundException("Пользователь с ID=" + userId + " не найден!");
+        }
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Бронирование с ID=" + bookingId + " не найдено"));
         Item item = itemRepository.findById(booking.getItem().getId())
                 .orElseThrow(() -> new NotFoundException("Вещь с ID=" + booking.getItem().getId() + " не найдена!"));
 
-        if (item.getOwner().getId().equals(userId)) {
-            if (!booking.getStatus().equals(BookingStatus.WAITING)) {
-                throw new ValidationException("Невозможно изменить статус");
-            }
-            if (approved) {
-                booking.setStatus(BookingStatus.APPROVED);
-                log.info("Бронирование с id: {} подтверждено", bookingId);
-            } else {
-                booking.setStatus(BookingStatus.REJECTED);
-                log.info("Бронирование с id: {} отклонено", bookingId);
-            }
-        } else {
+        if (!item.getOwner().getId().equals(userId)) {
             throw new NotFoundException("Подтверждение или отклонение запроса на бронирование может быть выполнено только владельцем вещи");
         }
+        if (!booking.getStatus().equals(BookingStatus.WAITING)) {
+            throw new ValidationException("Невозможно изменить статус");
+        }
 
-        bookingRepository.save(booking);
+        if (approved) {
+            itemBookingLocks.lock(item.getId());
+        }
+        if (approved && bookingRepository.existsOverlapping(item.getId(), booking.getId(), BookingIntervalIndex.ACTIVE_STATUSES,
+                booking.getStart(), booking.getEnd())) {
+            throw new ValidationException("Вещь с ID=" + item.getId() + " уже забронирована на указанное время");
+        }
 
-        return toBookingDto(booking);
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        if (bookingRepository.updateStatus(bookingId, booking.getVersion(), BookingStatus.WAITING, status) == 0) {
+            throw new ConflictException("Статус бронирования с ID=" + bookingId + " уже изменён другим запросом");
+        }
+        itemBookingPointers.refresh(item.getId());
+        if (approved) {
+            bookingTimer.schedule(booking, status);
+            log.info("Бронирование с id: {} подтверждено", bookingId);
+        } else {
+            bookingIntervalIndex.remove(booking);
+            bookingTimer.cancel(booking);
+            log.info("Бронирование с id: {} отклонено", bookingId);
+        }
+
+        BookingDto bookingDto = toBookingDto(booking);
+        bookingDto.setStatus(status);
+        return bookingDto;
     }
 
     @Override
     public BookingDto getBookingById(Long userId, Long bookingId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с ID=" + userId + " не найден!"));
+        if (!userExistenceIndex.exists(userId)) {
+            throw new NotFoundException("Пользователь с ID=" + userId + " не найден!");
+        }
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Бронирование с ID=" + bookingId + " не найдено"));
         Item item = itemRepository.findById(booking.getItem().getId())
@@ -113,9 +164,10 @@ public class BookingServiceImpl implements BookingService {
 
         PageRequest page = PageRequest.of(from > 0 ? from / size : from, size, sort);
 
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с ID=" + userId + " не найден!"));
-        Page<Booking> bookings = null;
+        if (!userExistenceIndex.exists(userId)) {
+            throw new NotFoundException("Пользователь с ID=" + userId + " не найден!");
+        }
+        Slice<BookingDto> bookings = null;
 
         switch (state) {
             case CURRENT:
@@ -138,7 +190,7 @@ public class BookingServiceImpl implements BookingService {
                 break;
         }
 
-        return bookings.map(BookingMapper::toBookingDto).getContent();
+        return bookings.getContent();
     }
 
     @Override
@@ -148,9 +200,10 @@ public class BookingServiceImpl implements BookingService {
 
         PageRequest page = PageRequest.of(from > 0 ? from / size : from, size, sort);
 
-        userRepository.findById(ownerId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с ID=" + ownerId + " не найден!"));
-        Page<Booking> bookings = null;
+        if (!userExistenceIndex.exists(ownerId)) {
+            throw new NotFoundException("Пользователь с ID=" + ownerId + " не найден!");
+        }
+        Slice<BookingDto> bookings = null;
 
         switch (state) {
             case CURRENT:
@@ -173,6 +226,41 @@ public class BookingServiceImpl implements BookingService {
                 break;
         }
 
-        return bookings.map(BookingMapper::toBookingDto).getContent();
+        return bookings.getContent();
+    }
+
+    @Override
+    public Slice<BookingDto> getAllUserBookings(Long userId, String stateStr, String cursor, Integer size) {
+        BookingState state = toBookingState(stateStr);
+
+        if (!userExistenceIndex.exists(userId)) {
+            throw new NotFoundException("Пользователь с ID=" + userId + " не найден!");
+        }
+
+        return bookingRepository.findByBookerIdAfterCursor(userId, state, BookingCursor.decode(cursor), LocalDateTime.now(), size);
+    }
+
+    @Override
+    public Slice<BookingDto> getOwnerBookings(Long ownerId, String stateStr, String cursor, Integer size) {
+        BookingState state = toBookingState(stateStr);
+
+        if (!userExistenceIndex.exists(ownerId)) {
+            throw new NotFoundException("Пользователь с ID=" + ownerId + " не найден!");
+        }
+
+        return bookingRepository.findByItemOwnerIdAfterCursor(ownerId, state, BookingCursor.decode(cursor), LocalDateTime.now(), size);
+    }
+
+    private static boolean isOverlapViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException
+                    && OVERLAP_CONSTRAINT.equalsIgnoreCase(((ConstraintViolationException) cause).getConstraintName())) {
+                return true;
+            }
+            if (cause instanceof SQLException && EXCLUSION_VIOLATION.equals(((SQLException) cause).getSQLState())) {
+                return true;
+            }
+        }
+        return false;
     }
 }
@@ -0,0 +1,156 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static ru.practicum.shareit.util.TransactionUtils.afterCommit;
+
+@Component
+@Slf4j
+public class BookingTimer {
+    private final BookingRepository bookingRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TimingWheel<BookingTransitionEvent> wheel;
+    private final boolean enabled;
+    private final long tickMillis;
+    private final int batchSize;
+    private ScheduledExecutorService executor;
+
+    public BookingTimer(BookingRepository bookingRepository, ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry,
+                        @Value("${shareit.scheduling.enabled:true}") boolean enabled,
+                        @Value("${shareit.booking-timer.tick:1000}") long tickMillis,
+                        @Value("${shareit.booking-timer.wheel-size:64}") int wheelSize,
+                        @Value("${shareit.booking-timer.levels:6}") int levels,
+                        @Value("${shareit.booking-timer.batch-size:1000}") int batchSize) {
+        this.bookingRepository = bookingRepository;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.tickMillis = tickMillis;
+        this.batchSize = batchSize;
+        this.wheel = new TimingWheel<>(tickMillis, wheelSize, levels, toMillis(LocalDateTime.now()));
+        Gauge.builder("shareit.booking.timer.pending", this, BookingTimer::size)
+                .description("Запланированные события начала и окончания бронирований")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        load();
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "booking-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    public void load() {
+        LocalDateTime now = LocalDateTime.now();
+        Long afterBookingId = 0L;
+        List<Booking> bookings;
+
+        do {
+            bookings = bookingRepository.findUpcomingAfter(afterBookingId, List.of(BookingStatus.APPROVED), now,
+                    PageRequest.of(0, batchSize));
+            if (bookings.isEmpty()) {
+                break;
+            }
+            bookings.forEach(booking -> add(booking.getId(), booking.getItem().getId(), booking.getStart(), booking.getEnd(),
+                    booking.getStatus()));
+            afterBookingId = bookings.get(bookings.size() - 1).getId();
+        } while (bookings.size() == batchSize);
+
+        log.info("Запланировано {} событий начала и окончания бронирований", size());
+    }
+
+    public void schedule(Booking booking, BookingStatus status) {
+        Long bookingId = booking.getId();
+        Long itemId = booking.getItem().getId();
+        LocalDateTime start = booking.getStart();
+        LocalDateTime end = booking.getEnd();
+        afterCommit(() -> add(bookingId, itemId, start, end, status));
+    }
+
+    public void cancel(Booking booking) {
+        Long bookingId = booking.getId();
+        Long itemId = booking.getItem().getId();
+        afterCommit(() -> {
+            synchronized (wheel) {
+                wheel.cancel(new BookingTransitionEvent(bookingId, itemId, BookingTransitionEvent.Type.STARTED, null));
+                wheel.cancel(new BookingTransitionEvent(bookingId, itemId, BookingTransitionEvent.Type.ENDED, null));
+            }
+        });
+    }
+
+    public void advance(LocalDateTime now) {
+        List<BookingTransitionEvent> events;
+        synchronized (wheel) {
+            events = wheel.advance(toMillis(now));
+        }
+
+        for (BookingTransitionEvent event : events) {
+            try {
+                eventPublisher.publishEvent(event);
+            } catch (RuntimeException e) {
+                log.error("Не удалось обработать событие {}", event, e);
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    private void tick() {
+        try {
+            advance(LocalDateTime.now());
+        } catch (RuntimeException e) {
+            log.error("Ошибка таймера бронирований", e);
+        }
+    }
+
+    private void add(Long bookingId, Long itemId, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (wheel) {
+            if (start.isAfter(now)) {
+                wheel.schedule(new BookingTransitionEvent(bookingId, itemId, BookingTransitionEvent.Type.STARTED, status),
+                        toMillis(start));
+            }
+            if (end.isAfter(now)) {
+                wheel.schedule(new BookingTransitionEvent(bookingId, itemId, BookingTransitionEvent.Type.ENDED, status),
+                        toMillis(end));
+            }
+        }
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
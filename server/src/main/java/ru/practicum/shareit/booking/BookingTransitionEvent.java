@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking;
+
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+
+@Value
+public class BookingTransitionEvent {
+    Long bookingId;
+    Long itemId;
+    Type type;
+    @EqualsAndHashCode.Exclude
+    BookingStatus status;
+
+    public enum Type {
+        STARTED,
+        ENDED
+    }
+}
@@ -0,0 +1,137 @@
+package ru.practicum.shareit.booking;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exeption.ConflictException;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+public class ItemBookingLocks {
+    private static final String ADVISORY_LOCK_QUERY = "SELECT COUNT(*) FROM (SELECT pg_advisory_xact_lock(:key)) AS item_lock";
+
+    private final ReentrantLock[] stripes;
+    private final long timeout;
+    private final DataSource dataSource;
+    private final Cache<Long, LongAdder> contendedItems;
+    private final Counter acquired;
+    private final Counter contended;
+    private final Timer waitTimer;
+    @PersistenceContext
+    private EntityManager entityManager;
+    private Boolean advisoryLockSupported;
+
+    public ItemBookingLocks(DataSource dataSource, MeterRegistry meterRegistry,
+                            @Value("${shareit.booking-lock.stripes:256}") int stripes,
+                            @Value("${shareit.booking-lock.timeout:5000}") long timeout,
+                            @Value("${shareit.booking-lock.hot-items:1000}") long hotItems) {
+        this.dataSource = dataSource;
+        this.timeout = timeout;
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.contendedItems = Caffeine.newBuilder()
+                .maximumSize(hotItems)
+                .build();
+        this.acquired = Counter.builder("shareit.booking.lock.acquired")
+                .description("Захваты блокировки вещи при создании бронирования")
+                .register(meterRegistry);
+        this.contended = Counter.builder("shareit.booking.lock.contended")
+                .description("Захваты блокировки вещи, которым пришлось ждать другой запрос")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("shareit.booking.lock.wait")
+                .description("Время ожидания блокировки вещи при создании бронирования")
+                .register(meterRegistry);
+    }
+
+    public void lock(Long itemId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Блокировка вещи возможна только внутри транзакции");
+        }
+
+        ReentrantLock stripe = stripes[stripeIndex(itemId)];
+        if (!stripe.tryLock()) {
+            contended.increment();
+            contendedItems.get(itemId, id -> new LongAdder()).increment();
+            long startTime = System.nanoTime();
+            try {
+                if (!stripe.tryLock(timeout, TimeUnit.MILLISECONDS)) {
+                    throw new ConflictException("Вещь с ID=" + itemId + " сейчас бронируется другим запросом");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ConflictException("Вещь с ID=" + itemId + " сейчас бронируется другим запросом");
+            } finally {
+                waitTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+            }
+        }
+        acquired.increment();
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                stripe.unlock();
+            }
+        });
+
+        if (isAdvisoryLockSupported()) {
+            entityManager.createNativeQuery(ADVISORY_LOCK_QUERY)
+                    .setParameter("key", itemId)
+                    .getSingleResult();
+        }
+    }
+
+    public void lockAll(Collection<Long> itemIds) {
+        itemIds.stream()
+                .sorted(Comparator.comparingInt(this::stripeIndex).thenComparing(Comparator.naturalOrder()))
+                .forEach(this::lock);
+    }
+
+    public Map<Long, Long> getHotItems(int limit) {
+        Map<Long, Long> hotItems = new LinkedHashMap<>();
+        contendedItems.asMap().entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<Long, LongAdder> entry) -> entry.getValue().sum()).reversed())
+                .limit(limit)
+                .forEach(entry -> hotItems.put(entry.getKey(), entry.getValue().sum()));
+        return hotItems;
+    }
+
+    private int stripeIndex(Long itemId) {
+        int hash = Long.hashCode(itemId);
+        hash ^= hash >>> 16;
+        return Math.floorMod(hash, stripes.length);
+    }
+
+    private boolean isAdvisoryLockSupported() {
+        if (advisoryLockSupported == null) {
+            try {
+                String productName = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+                advisoryLockSupported = DatabaseDriver.fromProductName(productName) == DatabaseDriver.POSTGRESQL;
+            } catch (MetaDataAccessException e) {
+                advisoryLockSupported = false;
+            }
+        }
+        return advisoryLockSupported;
+    }
+}
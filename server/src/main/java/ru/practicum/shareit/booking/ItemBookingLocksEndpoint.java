@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+@Endpoint(id = "bookinglocks")
+@RequiredArgsConstructor
+public class ItemBookingLocksEndpoint {
+    private static final int HOT_ITEMS_LIMIT = 20;
+
+    private final ItemBookingLocks itemBookingLocks;
+
+    @ReadOperation
+    public Map<Long, Long> hotItems() {
+        return itemBookingLocks.getHotItems(HOT_ITEMS_LIMIT);
+    }
+}
@@ -0,0 +1,121 @@
+package ru.practicum.shareit.booking;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+class TimingWheel<K> {
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long[] spans;
+    private final List<List<Set<K>>> levels = new ArrayList<>();
+    private final Map<K, Timeout> timeouts = new HashMap<>();
+    private long currentTick;
+
+    TimingWheel(long tickMillis, int wheelSize, int levelCount, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2 || levelCount < 1) {
+            throw new IllegalArgumentException("Некорректные параметры колеса таймеров");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.spans = new long[levelCount];
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+
+        long span = 1;
+        for (int level = 0; level < levelCount; level++) {
+            spans[level] = span;
+            span = Math.multiplyExact(span, wheelSize);
+
+            List<Set<K>> slots = new ArrayList<>(wheelSize);
+            for (int slot = 0; slot < wheelSize; slot++) {
+                slots.add(new LinkedHashSet<>());
+            }
+            levels.add(slots);
+        }
+    }
+
+    void schedule(K key, long expirationMillis) {
+        cancel(key);
+        long expirationTick = Math.max(-Math.floorDiv(-expirationMillis, tickMillis), currentTick + 1);
+        Timeout timeout = new Timeout(expirationTick);
+        timeouts.put(key, timeout);
+        place(key, timeout);
+    }
+
+    boolean cancel(K key) {
+        Timeout timeout = timeouts.remove(key);
+        if (timeout == null) {
+            return false;
+        }
+        levels.get(timeout.level).get(timeout.slot).remove(key);
+        return true;
+    }
+
+    List<K> advance(long nowMillis) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        List<K> expired = new ArrayList<>();
+
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = spans.length - 1; level > 0; level--) {
+                if (currentTick % spans[level] == 0) {
+                    cascade(level);
+                }
+            }
+
+            Set<K> bucket = levels.get(0).get(slot(currentTick, 0));
+            for (K key : bucket) {
+                timeouts.remove(key);
+                expired.add(key);
+            }
+            bucket.clear();
+        }
+        return expired;
+    }
+
+    int size() {
+        return timeouts.size();
+    }
+
+    private void cascade(int level) {
+        Set<K> bucket = levels.get(level).get(slot(currentTick, level));
+        if (bucket.isEmpty()) {
+            return;
+        }
+
+        List<K> keys = new ArrayList<>(bucket);
+        bucket.clear();
+        keys.forEach(key -> place(key, timeouts.get(key)));
+    }
+
+    private void place(K key, Timeout timeout) {
+        int topLevel = spans.length - 1;
+        long tick = Math.min(timeout.expirationTick, currentTick + spans[topLevel] * wheelSize - 1);
+        long delta = tick - currentTick;
+
+        int level = 0;
+        while (level < topLevel && delta >= spans[level + 1]) {
+            level++;
+        }
+        timeout.level = level;
+        timeout.slot = slot(tick, level);
+        levels.get(level).get(timeout.slot).add(key);
+    }
+
+    private int slot(long tick, int level) {
+        return (int) ((tick / spans[level]) % wheelSize);
+    }
+
+    private static class Timeout {
+        private final long expirationTick;
+        private int level;
+        private int slot;
+
+        Timeout(long expirationTick) {
+            this.expirationTick = expirationTick;
+        }
+    }
+}
@@ -18,4 +18,14 @@ public class BookingDto implements Serializable {
     private ItemForBookingDto item;
     private UserDto booker;
     private BookingStatus status;
+
+    public BookingDto(Long id, LocalDateTime start, LocalDateTime end,
+                      Long itemId, String itemName, String itemDescription, Boolean itemAvailable,
+                      Long bookerId, String bookerName, String bookerEmail,
+                      BookingStatus status) {
+        this(id, start, end,
+                new ItemForBookingDto(itemId, itemName, itemDescription, itemAvailable, null, null),
+                new UserDto(bookerId, bookerName, bookerEmail),
+                status);
+    }
 }
@@ -1,11 +1,13 @@
 package ru.practicum.shareit.handler;
 
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import ru.practicum.shareit.exeption.AlreadyExistsException;
+import ru.practicum.shareit.exeption.ConflictException;
 import ru.practicum.shareit.exeption.NotFoundException;
 import ru.practicum.shareit.exeption.UnsupportedStatusException;
 import ru.practicum.shareit.exeption.ValidationException;
@@ -31,6 +33,12 @@ public class ErrorHandler {
         return new ErrorResponse("Значение уже используется", e.getMessage());
     }
 
+    @ExceptionHandler({ConflictException.class, ConcurrencyFailureException.class})
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleConflictException(final RuntimeException e) {
+        return new ErrorResponse("Конфликт одновременных изменений", e.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleUnsupportedStatusException(UnsupportedStatusException e) {
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exeption.ConflictException;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+@Component
+@Slf4j
+public class IdempotencyStore {
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    private final Cache<String, Entry> entries;
+    private final long waitTimeout;
+
+    public IdempotencyStore(@Value("${shareit.idempotency.max-keys:100000}") long maxKeys,
+                            @Value("${shareit.idempotency.ttl:86400000}") long ttl,
+                            @Value("${shareit.idempotency.wait-timeout:10000}") long waitTimeout) {
+        this.waitTimeout = waitTimeout;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterWrite(Duration.ofMillis(ttl))
+                .scheduler(Scheduler.systemScheduler())
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String scope, Long userId, String idempotencyKey, Object request, Supplier<T> action) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+
+        String key = scope + ":" + userId + ":" + idempotencyKey;
+        Entry entry = new Entry(request);
+        Entry existing = entries.asMap().putIfAbsent(key, entry);
+        if (existing != null) {
+            if (!Objects.equals(existing.request, request)) {
+                throw new ConflictException("Ключ идемпотентности " + idempotencyKey + " уже использован для другого запроса");
+            }
+            log.info("Повторный запрос с ключом идемпотентности {}, возвращается исходный результат", idempotencyKey);
+            return (T) await(existing, idempotencyKey);
+        }
+
+        try {
+            T response = action.get();
+            entry.response.complete(response);
+            return response;
+        } catch (Throwable e) {
+            entries.asMap().remove(key, entry);
+            entry.response.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Object await(Entry existing, String idempotencyKey) {
+        try {
+            return existing.response.get(waitTimeout, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (TimeoutException e) {
+            throw new ConflictException("Запрос с ключом идемпотентности " + idempotencyKey + " ещё выполняется");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Запрос с ключом идемпотентности " + idempotencyKey + " ещё выполняется");
+        }
+    }
+
+    private static class Entry {
+        private final Object request;
+        private final CompletableFuture<Object> response = new CompletableFuture<>();
+
+        private Entry(Object request) {
+            this.request = request;
+        }
+    }
+}
@@ -1,10 +1,17 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Comment;
 
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByItemId(Long itemId);
+
+    @EntityGraph(attributePaths = "author")
+    @Query("SELECT c FROM Comment c WHERE c.item.id IN :itemIds")
+    List<Comment> findByItemIdIn(@Param("itemIds") List<Long> itemIds);
 }
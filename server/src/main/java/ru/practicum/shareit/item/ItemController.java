@@ -2,29 +2,39 @@ package ru.practicum.shareit.item;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.idempotency.IdempotencyStore;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import static ru.practicum.shareit.idempotency.IdempotencyStore.IDEMPOTENCY_KEY;
+
 @RestController
 @RequestMapping("/items")
 @Slf4j
 public class ItemController {
     private final ItemService itemService;
+    private final IdempotencyStore idempotencyStore;
     private static final String USER = "X-Sharer-User-Id";
 
     @Autowired
-    public ItemController(ItemService itemService) {
+    public ItemController(ItemService itemService, IdempotencyStore idempotencyStore) {
         this.itemService = itemService;
+        this.idempotencyStore = idempotencyStore;
     }
 
     @PostMapping
     public ItemDto create(@RequestHeader(USER) Long ownerId,
+                          @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
                           @RequestBody ItemDto itemDto) {
         log.debug("Получен POST-запрос к эндпоинту: /items на создание новой вещи");
-        return itemService.create(itemDto, ownerId);
+        return idempotencyStore.execute("items", ownerId, idempotencyKey, itemDto,
+                () -> itemService.create(itemDto, ownerId));
     }
 
     @PatchMapping("/{itemId}")
@@ -58,6 +68,24 @@ public class ItemController {
         return itemService.getItemsBySearchQuery(text, from, size);
     }
 
+    @GetMapping("/search/available")
+    public List<ItemDto> getAvailableItemsBySearchQuery(@RequestParam String text,
+                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                                        @RequestParam(defaultValue = "0") Integer from,
+                                                        @RequestParam(defaultValue = "10") Integer size) {
+        log.debug("Получен GET-запрос к эндпоинту: /items/search/available на получение свободных с {} по {} вещей по тексту", start, end);
+        return itemService.getAvailableItemsBySearchQuery(text, start, end, from, size);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getItemAvailability(@PathVariable Long itemId,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        log.debug("Получен GET-запрос к эндпоинту: /items/{}/availability на получение занятости вещи с {} по {}", itemId, start, end);
+        return itemService.getItemAvailability(itemId, start, end);
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDto createComment(@RequestHeader(USER) Long userId,
                                     @RequestBody CommentDto commentDto,
@@ -1,21 +1,33 @@
 package ru.practicum.shareit.item;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemText;
 
 import java.util.List;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
-    Page<Item> findByOwner_Id(Long id, Pageable pageable);
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemSearchRepository {
+    String ITEM_DTO_QUERY = "SELECT new ru.practicum.shareit.item.dto.ItemDto(" +
+            "i.id, i.name, i.description, i.available, i.request.id) FROM Item i ";
 
-    List<Item> findByRequest_IdOrderById(Long id);
+    @Query(ITEM_DTO_QUERY + "WHERE i.owner.id = :ownerId ORDER BY i.id")
+    Slice<ItemDto> findByOwner_Id(@Param("ownerId") Long ownerId, Pageable pageable);
 
-    @Query("SELECT i FROM Item i " +
-            "WHERE i.available = true AND (LOWER(i.name) LIKE LOWER(concat('%', :text, '%')) " +
-            "OR LOWER(i.description) LIKE LOWER(concat('%', :text, '%')))")
-    Page<Item> findBySearchQuery(@Param("text") String text, Pageable pageable);
+    @Query(ITEM_DTO_QUERY + "WHERE i.id IN :ids")
+    List<ItemDto> findDtosByIdIn(@Param("ids") List<Long> ids);
+
+    @Query("SELECT i FROM Item i WHERE i.request.id = :requestId ORDER BY i.id")
+    List<Item> findByRequest_IdOrderById(@Param("requestId") Long requestId);
+
+    @Query("SELECT i FROM Item i WHERE i.request.id IN :requestIds ORDER BY i.id")
+    List<Item> findByRequest_IdInOrderById(@Param("requestIds") List<Long> requestIds);
+
+    @Query("SELECT i.id AS id, i.name AS name, i.description AS description FROM Item i " +
+            "WHERE i.available = true AND i.id > :afterId ORDER BY i.id")
+    List<ItemText> findAvailableTextsAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
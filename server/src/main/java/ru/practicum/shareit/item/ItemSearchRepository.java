@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.LocalDateTime;
+
+public interface ItemSearchRepository {
+    Slice<ItemDto> findBySearchQuery(String text, Pageable pageable);
+
+    Slice<ItemDto> findAvailableBySearchQuery(String text, LocalDateTime start, LocalDateTime end, Pageable pageable);
+}
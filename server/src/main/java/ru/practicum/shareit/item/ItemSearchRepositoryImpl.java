@@ -0,0 +1,125 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class ItemSearchRepositoryImpl implements ItemSearchRepository {
+    private static final String SEARCH_VECTOR = "(setweight(to_tsvector('simple', i.name), 'A') || " +
+            "setweight(to_tsvector('simple', i.description), 'B'))";
+    private static final String FULL_TEXT_CONDITION = "FROM items i " +
+            "WHERE i.is_available = true AND (" + SEARCH_VECTOR + " @@ plainto_tsquery('simple', :text) " +
+            "OR LOWER(i.name) LIKE :pattern OR LOWER(i.description) LIKE :pattern)";
+    private static final String FULL_TEXT_FREE_CONDITION = " AND NOT EXISTS (SELECT 1 FROM bookings b " +
+            "WHERE b.item_id = i.id AND b.status IN ('WAITING', 'APPROVED') AND b.start_date < :end AND b.end_date > :start)";
+    private static final String FULL_TEXT_SELECT = "SELECT i.id, i.name, i.description, i.is_available, i.request_id ";
+    private static final String FULL_TEXT_ORDER = " ORDER BY ts_rank(" + SEARCH_VECTOR + ", plainto_tsquery('simple', :text)) DESC, i.id";
+    private static final String FULL_TEXT_QUERY = FULL_TEXT_SELECT + FULL_TEXT_CONDITION + FULL_TEXT_ORDER;
+    private static final String FULL_TEXT_FREE_QUERY = FULL_TEXT_SELECT + FULL_TEXT_CONDITION + FULL_TEXT_FREE_CONDITION + FULL_TEXT_ORDER;
+
+    private static final String LIKE_CONDITION = "FROM Item i " +
+            "WHERE i.available = true AND (LOWER(i.name) LIKE :pattern OR LOWER(i.description) LIKE :pattern)";
+    private static final String LIKE_FREE_CONDITION = " AND NOT EXISTS (SELECT b.id FROM Booking b " +
+            "WHERE b.item = i AND b.status IN :statuses AND b.start < :end AND b.end > :start)";
+    private static final String LIKE_SELECT = "SELECT new ru.practicum.shareit.item.dto.ItemDto(" +
+            "i.id, i.name, i.description, i.available, i.request.id) ";
+    private static final String LIKE_ORDER = " ORDER BY CASE WHEN LOWER(i.name) LIKE :pattern THEN 0 ELSE 1 END, i.id";
+    private static final String LIKE_QUERY = LIKE_SELECT + LIKE_CONDITION + LIKE_ORDER;
+    private static final String LIKE_FREE_QUERY = LIKE_SELECT + LIKE_CONDITION + LIKE_FREE_CONDITION + LIKE_ORDER;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+    private final DataSource dataSource;
+    private volatile Boolean fullTextSupported;
+
+    public ItemSearchRepositoryImpl(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public Slice<ItemDto> findBySearchQuery(String text, Pageable pageable) {
+        String pattern = "%" + text.toLowerCase() + "%";
+
+        if (isFullTextSupported()) {
+            return findByFullTextQuery(entityManager.createNativeQuery(FULL_TEXT_QUERY), text, pattern, pageable);
+        }
+
+        return findByLikeQuery(entityManager.createQuery(LIKE_QUERY, ItemDto.class), pattern, pageable);
+    }
+
+    @Override
+    public Slice<ItemDto> findAvailableBySearchQuery(String text, LocalDateTime start, LocalDateTime end, Pageable pageable) {
+        String pattern = "%" + text.toLowerCase() + "%";
+
+        if (isFullTextSupported()) {
+            Query query = entityManager.createNativeQuery(FULL_TEXT_FREE_QUERY)
+                    .setParameter("start", start)
+                    .setParameter("end", end);
+            return findByFullTextQuery(query, text, pattern, pageable);
+        }
+
+        TypedQuery<ItemDto> query = entityManager.createQuery(LIKE_FREE_QUERY, ItemDto.class)
+                .setParameter("statuses", List.of(BookingStatus.WAITING, BookingStatus.APPROVED))
+                .setParameter("start", start)
+                .setParameter("end", end);
+        return findByLikeQuery(query, pattern, pageable);
+    }
+
+    private Slice<ItemDto> findByLikeQuery(TypedQuery<ItemDto> query, String pattern, Pageable pageable) {
+        query.setParameter("pattern", pattern)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1);
+
+        return toSlice(query.getResultList(), pageable);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Slice<ItemDto> findByFullTextQuery(Query query, String text, String pattern, Pageable pageable) {
+        query.setParameter("text", text)
+                .setParameter("pattern", pattern)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1);
+        List<ItemDto> items = ((List<Object[]>) query.getResultList()).stream()
+                .map(row -> new ItemDto(
+                        ((Number) row[0]).longValue(),
+                        (String) row[1],
+                        (String) row[2],
+                        (Boolean) row[3],
+                        row[4] != null ? ((Number) row[4]).longValue() : null))
+                .collect(Collectors.toList());
+
+        return toSlice(items, pageable);
+    }
+
+    private static Slice<ItemDto> toSlice(List<ItemDto> items, Pageable pageable) {
+        boolean hasNext = items.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? items.subList(0, pageable.getPageSize()) : items, pageable, hasNext);
+    }
+
+    private boolean isFullTextSupported() {
+        if (fullTextSupported == null) {
+            try {
+                String productName = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+                fullTextSupported = DatabaseDriver.fromProductName(productName) == DatabaseDriver.POSTGRESQL;
+            } catch (MetaDataAccessException e) {
+                fullTextSupported = false;
+            }
+        }
+        return fullTextSupported;
+    }
+}
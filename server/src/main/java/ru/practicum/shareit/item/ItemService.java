@@ -1,8 +1,10 @@
 package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -16,5 +18,9 @@ public interface ItemService {
 
     List<ItemDto> getItemsBySearchQuery(String text, Integer from, Integer size);
 
+    List<ItemDto> getAvailableItemsBySearchQuery(String text, LocalDateTime start, LocalDateTime end, Integer from, Integer size);
+
+    ItemAvailabilityDto getItemAvailability(Long itemId, LocalDateTime start, LocalDateTime end);
+
     CommentDto createComment(Long userId, CommentDto commentDto, Long itemId);
 }
@@ -2,28 +2,39 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingIntervalIndex;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.exeption.NotFoundException;
 import ru.practicum.shareit.exeption.ValidationException;
+import ru.practicum.shareit.item.cache.CachedItem;
+import ru.practicum.shareit.item.cache.ItemDetailsCache;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.TimeIntervalDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.pointer.ItemBookingPointer;
+import ru.practicum.shareit.item.pointer.ItemBookingPointers;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceIndex;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.booking.BookingMapper.toBookingForItemDto;
@@ -36,9 +47,13 @@ import static ru.practicum.shareit.item.ItemMapper.*;
 public class ItemServiceImpl implements ItemService {
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserExistenceIndex userExistenceIndex;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemDetailsCache itemDetailsCache;
+    private final ItemBookingPointers itemBookingPointers;
 
     @Transactional
     @Override
@@ -56,6 +71,8 @@ public class ItemServiceImpl implements ItemService {
 
         Item item = itemRepository.save(toItem(itemDto, user, request));
         List<Comment> comments = commentRepository.findByItemId(item.getId());
+        itemSearchIndex.index(item);
+        itemBookingPointers.create(item.getId());
 
         log.info("Добавлена новая вещь: {}", itemDto);
         return toItemDto(item, comments);
@@ -64,14 +81,19 @@ public class ItemServiceImpl implements ItemService {
     @Transactional
     @Override
     public ItemDto update(Long ownerId, ItemDto itemDto, Long itemId) {
-        User user = userRepository.findById(ownerId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с ID=" + ownerId + " не найден!"));
+        if (!userExistenceIndex.exists(ownerId)) {
+            throw new NotFoundException("Пользователь с ID=" + ownerId + " не найден!");
+        }
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException("Вещь с ID=" + itemId + " не найдена!"));
 
         if (!item.getOwner().getId().equals(ownerId)) {
             throw new NotFoundException("Данная вещь принадлежит другому пользователю");
         }
+
+        Item previous = new Item(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                item.getOwner(), item.getRequest());
+
         if (itemDto.getName() != null) {
             item.setName(itemDto.getName());
         }
@@ -84,7 +106,9 @@ public class ItemServiceImpl implements ItemService {
 
         List<Comment> comments = commentRepository.findByItemId(item.getId());
         ItemDto updateItemDto = toItemDto(item, comments);
-        itemRepository.save(toItem(updateItemDto, user, item.getRequest()));
+        itemRepository.save(toItem(updateItemDto, item.getOwner(), item.getRequest()));
+        itemSearchIndex.reindex(previous, item);
+        itemDetailsCache.evict(itemId);
 
         log.info("Вещь с id: {} обновлена", item.getId());
 
@@ -93,14 +117,22 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     public ItemDto getItemById(Long ownerId, Long itemId) {
-        Item item = itemRepository.findById(itemId)
-                .orElseThrow(() -> new NotFoundException("Вещь с ID=" + itemId + " не найдена!"));
-        List<Comment> comments = commentRepository.findByItemId(item.getId());
-        ItemDto itemDto = toItemDto(item, comments);
+        CachedItem cachedItem = itemDetailsCache.get(itemId, this::loadItem);
+        ItemDto itemDto = cachedItem.toItemDto();
 
-        if (item.getOwner().getId().equals(ownerId)) {
-            Booking lastBooking = bookingRepository.findFirstByItem_IdAndStartBeforeOrderByEndDesc(itemId, LocalDateTime.now());
-            Booking nextBooking = bookingRepository.findFirstByItem_IdAndStartAfterAndStatusOrderByStartAsc(itemId, LocalDateTime.now(), BookingStatus.APPROVED);
+        if (cachedItem.getOwnerId().equals(ownerId)) {
+            LocalDateTime now = LocalDateTime.now();
+            ItemBookingPointer pointer = itemBookingPointers.findValid(List.of(itemId), now).get(itemId);
+            Booking lastBooking;
+            Booking nextBooking;
+
+            if (pointer != null) {
+                lastBooking = pointer.getLastBooking();
+                nextBooking = pointer.getNextBooking();
+            } else {
+                lastBooking = bookingRepository.findFirstByItem_IdAndStartBeforeOrderByEndDesc(itemId, now);
+                nextBooking = bookingRepository.findFirstByItem_IdAndStartAfterAndStatusOrderByStartAsc(itemId, now, BookingStatus.APPROVED);
+            }
 
             if (lastBooking != null) {
                 itemDto.setLastBooking(toBookingForItemDto(lastBooking));
@@ -116,28 +148,52 @@ public class ItemServiceImpl implements ItemService {
     public List<ItemDto> getItemsByOwner(Long ownerId, Integer from, Integer size) {
         PageRequest page = PageRequest.of(from > 0 ? from / size : from, size);
 
-        List<Item> items = itemRepository.findByOwner_Id(ownerId, page).stream()
-                .sorted(Comparator.comparing(Item::getId))
+        List<ItemDto> items = itemRepository.findByOwner_Id(ownerId, page).getContent();
+
+        if (items.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Long> itemIds = items.stream()
+                .map(ItemDto::getId)
                 .collect(Collectors.toList());
-        List<ItemDto> itemDtos = new ArrayList<>();
+        Map<Long, List<CommentDto>> comments = findCommentsByItemIds(itemIds);
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Booking> lastBookings = new HashMap<>();
+        Map<Long, Booking> nextBookings = new HashMap<>();
+        Map<Long, ItemBookingPointer> pointers = itemBookingPointers.findValid(itemIds, now);
 
-        for (Item item : items) {
-            List<Comment> comments = commentRepository.findByItemId(item.getId());
-            ItemDto itemDto = toItemDto(item, comments);
+        for (ItemBookingPointer pointer : pointers.values()) {
+            lastBookings.put(pointer.getItemId(), pointer.getLastBooking());
+            nextBookings.put(pointer.getItemId(), pointer.getNextBooking());
+        }
 
-            Booking lastBooking = bookingRepository.findFirstByItem_IdAndStartBeforeOrderByEndDesc(item.getId(), LocalDateTime.now());
-            Booking nextBooking = bookingRepository.findFirstByItem_IdAndStartAfterAndStatusOrderByStartAsc(item.getId(), LocalDateTime.now(), BookingStatus.APPROVED);
+        List<Long> missingItemIds = itemIds.stream()
+                .filter(itemId -> !pointers.containsKey(itemId))
+                .collect(Collectors.toList());
+        if (!missingItemIds.isEmpty()) {
+            for (Booking booking : bookingRepository.findLastAndNextByItemIds(missingItemIds, now)) {
+                if (booking.getStart().isBefore(now)) {
+                    lastBookings.put(booking.getItem().getId(), booking);
+                } else {
+                    nextBookings.put(booking.getItem().getId(), booking);
+                }
+            }
+        }
+
+        for (ItemDto itemDto : items) {
+            Booking lastBooking = lastBookings.get(itemDto.getId());
+            Booking nextBooking = nextBookings.get(itemDto.getId());
 
+            itemDto.setComments(comments.getOrDefault(itemDto.getId(), new ArrayList<>()));
             if (lastBooking != null) {
                 itemDto.setLastBooking(toBookingForItemDto(lastBooking));
             }
             if (nextBooking != null) {
                 itemDto.setNextBooking(toBookingForItemDto(nextBooking));
             }
-
-            itemDtos.add(itemDto);
         }
-        return itemDtos;
+        return items;
     }
 
     @Override
@@ -148,16 +204,97 @@ public class ItemServiceImpl implements ItemService {
             return new ArrayList<>();
         }
 
-        Page<Item> items = itemRepository.findBySearchQuery(text.toLowerCase(), page);
-        List<ItemDto> itemDtos = new ArrayList<>();
+        List<ItemDto> items;
+
+        if (itemSearchIndex.isReady()) {
+            List<Long> ids = itemSearchIndex.search(text, page.getOffset(), size);
+            Map<Long, ItemDto> itemsById = itemRepository.findDtosByIdIn(ids).stream()
+                    .collect(Collectors.toMap(ItemDto::getId, Function.identity()));
+            items = ids.stream()
+                    .map(itemsById::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+        } else {
+            items = itemRepository.findBySearchQuery(text.toLowerCase(), page).getContent();
+        }
+
+        if (items.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, List<CommentDto>> comments = findCommentsByItemIds(items.stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList()));
+
+        for (ItemDto itemDto : items) {
+            itemDto.setComments(comments.getOrDefault(itemDto.getId(), new ArrayList<>()));
+        }
+        return items;
+    }
+
+    @Override
+    public List<ItemDto> getAvailableItemsBySearchQuery(String text, LocalDateTime start, LocalDateTime end,
+                                                        Integer from, Integer size) {
+        validatePeriod(start, end);
+        PageRequest page = PageRequest.of(from > 0 ? from / size : from, size);
+
+        if (text.isBlank()) {
+            return new ArrayList<>();
+        }
+
+        List<ItemDto> items = itemRepository.findAvailableBySearchQuery(text.toLowerCase(), start, end, page).getContent();
 
-        for (Item item : items) {
-            List<Comment> comments = commentRepository.findByItemId(item.getId());
-            ItemDto itemDto = toItemDto(item, comments);
-            itemDtos.add(itemDto);
+        if (items.isEmpty()) {
+            return new ArrayList<>();
         }
 
-        return itemDtos;
+        Map<Long, List<CommentDto>> comments = findCommentsByItemIds(items.stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList()));
+
+        for (ItemDto itemDto : items) {
+            itemDto.setComments(comments.getOrDefault(itemDto.getId(), new ArrayList<>()));
+        }
+        return items;
+    }
+
+    @Override
+    public ItemAvailabilityDto getItemAvailability(Long itemId, LocalDateTime start, LocalDateTime end) {
+        validatePeriod(start, end);
+
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Вещь с ID=" + itemId + " не найдена!");
+        }
+
+        List<TimeIntervalDto> occupied = new ArrayList<>();
+        List<TimeIntervalDto> free = new ArrayList<>();
+        LocalDateTime freeFrom = start;
+
+        for (Booking booking : bookingRepository.findOverlapping(itemId, BookingIntervalIndex.ACTIVE_STATUSES, start, end)) {
+            LocalDateTime occupiedFrom = booking.getStart().isBefore(start) ? start : booking.getStart();
+            LocalDateTime occupiedTo = booking.getEnd().isAfter(end) ? end : booking.getEnd();
+            TimeIntervalDto last = occupied.isEmpty() ? null : occupied.get(occupied.size() - 1);
+
+            if (last != null && !occupiedFrom.isAfter(last.getEnd())) {
+                if (occupiedTo.isAfter(last.getEnd())) {
+                    last.setEnd(occupiedTo);
+                }
+            } else {
+                occupied.add(new TimeIntervalDto(occupiedFrom, occupiedTo));
+            }
+        }
+
+        for (TimeIntervalDto interval : occupied) {
+            if (freeFrom.isBefore(interval.getStart())) {
+                free.add(new TimeIntervalDto(freeFrom, interval.getStart()));
+            }
+            freeFrom = interval.getEnd();
+        }
+        if (freeFrom.isBefore(end)) {
+            free.add(new TimeIntervalDto(freeFrom, end));
+        }
+
+        return new ItemAvailabilityDto(itemId, start, end, free, occupied);
     }
 
     @Transactional
@@ -177,6 +314,27 @@ public class ItemServiceImpl implements ItemService {
         } else {
             throw new ValidationException("Отзывы могут оставлять только пользователи, которые брали вещь в аренду");
         }
-        return toCommentDto(commentRepository.save(comment));
+        CommentDto savedComment = toCommentDto(commentRepository.save(comment));
+        itemDetailsCache.evict(itemId);
+        return savedComment;
+    }
+
+    private CachedItem loadItem(Long itemId) {
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> new NotFoundException("Вещь с ID=" + itemId + " не найдена!"));
+        List<Comment> comments = commentRepository.findByItemId(item.getId());
+        return new CachedItem(item.getOwner().getId(), toItemDto(item, comments));
+    }
+
+    private static void validatePeriod(LocalDateTime start, LocalDateTime end) {
+        if (!start.isBefore(end)) {
+            throw new ValidationException("Некорректно указано время: дата окончания должна быть позже даты начала");
+        }
+    }
+
+    private Map<Long, List<CommentDto>> findCommentsByItemIds(List<Long> itemIds) {
+        return commentRepository.findByItemIdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(ItemMapper::toCommentDto, Collectors.toList())));
     }
 }
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.ArrayList;
+
+@Getter
+@AllArgsConstructor
+public class CachedItem {
+    private final Long ownerId;
+    private final ItemDto item;
+
+    public ItemDto toItemDto() {
+        return new ItemDto(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                null, null, new ArrayList<>(item.getComments()), item.getRequestId());
+    }
+
+    public int weight() {
+        return 1 + item.getComments().size();
+    }
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.item.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+
+import static ru.practicum.shareit.util.TransactionUtils.afterCommit;
+
+@Component
+public class ItemDetailsCache {
+    private final Cache<Long, CachedItem> cache;
+
+    public ItemDetailsCache(@Value("${shareit.item-cache.max-weight:100000}") long maxWeight,
+                            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((Long itemId, CachedItem item) -> item.weight())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "itemDetails");
+    }
+
+    public CachedItem get(Long itemId, Function<Long, CachedItem> loader) {
+        return cache.get(itemId, loader);
+    }
+
+    public void evict(Long itemId) {
+        afterCommit(() -> cache.invalidate(itemId));
+    }
+
+    public void evictAll() {
+        afterCommit(cache::invalidateAll);
+    }
+}
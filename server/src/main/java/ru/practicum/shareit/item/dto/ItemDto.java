@@ -1,14 +1,16 @@
 package ru.practicum.shareit.item.dto;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import ru.practicum.shareit.booking.dto.BookingForItemDto;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.List;
 
 @Data
-@AllArgsConstructor
+@AllArgsConstructor(onConstructor_ = @JsonCreator)
 public class ItemDto implements Serializable {
     private Long id;
     private String name;
@@ -18,4 +20,8 @@ public class ItemDto implements Serializable {
     private BookingForItemDto nextBooking;
     private List<CommentDto> comments;
     private Long requestId;
+
+    public ItemDto(Long id, String name, String description, Boolean available, Long requestId) {
+        this(id, name, description, available, null, null, new ArrayList<>(), requestId);
+    }
 }
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.item.pointer;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import ru.practicum.shareit.booking.Booking;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "item_booking_pointers")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemBookingPointer {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "last_booking_id")
+    @ToString.Exclude
+    private Booking lastBooking;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "next_booking_id")
+    @ToString.Exclude
+    private Booking nextBooking;
+    @Column(name = "valid_until")
+    private LocalDateTime validUntil;
+
+    public boolean isValidAt(LocalDateTime moment) {
+        return validUntil == null || validUntil.isAfter(moment);
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.pointer;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ItemBookingPointerRepository extends JpaRepository<ItemBookingPointer, Long> {
+    @Query("SELECT p FROM ItemBookingPointer p LEFT JOIN FETCH p.lastBooking LEFT JOIN FETCH p.nextBooking " +
+            "WHERE p.itemId IN :itemIds")
+    List<ItemBookingPointer> findByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
+
+    @Query("SELECT p.itemId FROM ItemBookingPointer p WHERE p.validUntil <= :now ORDER BY p.validUntil")
+    List<Long> findExpiredItemIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query("SELECT i.id FROM Item i WHERE i.id > :afterItemId ORDER BY i.id")
+    List<Long> findItemIdsAfter(@Param("afterItemId") Long afterItemId, Pageable pageable);
+}
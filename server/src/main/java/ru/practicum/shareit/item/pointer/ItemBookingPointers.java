@@ -0,0 +1,170 @@
+package ru.practicum.shareit.item.pointer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingIntervalIndex;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingTransitionEvent;
+import ru.practicum.shareit.booking.ItemBookingLocks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+@Component
+@Slf4j
+public class ItemBookingPointers {
+    private final ItemBookingPointerRepository pointerRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemBookingLocks itemBookingLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public ItemBookingPointers(ItemBookingPointerRepository pointerRepository,
+                               BookingRepository bookingRepository,
+                               ItemBookingLocks itemBookingLocks,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${shareit.booking-pointers.batch-size:500}") int batchSize) {
+        this.pointerRepository = pointerRepository;
+        this.bookingRepository = bookingRepository;
+        this.itemBookingLocks = itemBookingLocks;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    public void create(Long itemId) {
+        pointerRepository.save(new ItemBookingPointer(itemId, null, null, null));
+    }
+
+    public void refresh(Long itemId) {
+        refresh(List.of(itemId));
+    }
+
+    public Map<Long, ItemBookingPointer> findValid(Collection<Long> itemIds, LocalDateTime now) {
+        Map<Long, ItemBookingPointer> pointers = new HashMap<>();
+        for (ItemBookingPointer pointer : pointerRepository.findByItemIdIn(itemIds)) {
+            if (pointer.isValidAt(now)) {
+                pointers.put(pointer.getItemId(), pointer);
+            }
+        }
+        return pointers;
+    }
+
+    @Scheduled(initialDelayString = "${shareit.booking-pointers.roll-forward-interval:600000}",
+            fixedDelayString = "${shareit.booking-pointers.roll-forward-interval:600000}")
+    public void rollForward() {
+        int refreshed = 0;
+        List<Long> itemIds;
+
+        do {
+            itemIds = pointerRepository.findExpiredItemIds(LocalDateTime.now(), PageRequest.of(0, batchSize));
+            refreshLocked(itemIds);
+            refreshed += itemIds.size();
+        } while (itemIds.size() == batchSize);
+
+        if (refreshed > 0) {
+            log.info("Обновлены указатели на бронирования для {} вещей", refreshed);
+        }
+    }
+
+    @EventListener(condition = "#event.type.name() == 'STARTED'")
+    public void onBookingStarted(BookingTransitionEvent event) {
+        refreshLocked(List.of(event.getItemId()));
+    }
+
+    public List<Long> findInconsistent() {
+        List<Long> inconsistent = new ArrayList<>();
+        forEachItemBatch(itemIds -> {
+            LocalDateTime now = LocalDateTime.now();
+            Map<Long, ItemBookingPointer> stored = new HashMap<>();
+            pointerRepository.findByItemIdIn(itemIds).forEach(pointer -> stored.put(pointer.getItemId(), pointer));
+            Map<Long, ItemBookingPointer> expected = new HashMap<>();
+            compute(itemIds, now).forEach(pointer -> expected.put(pointer.getItemId(), pointer));
+
+            for (Long itemId : itemIds) {
+                ItemBookingPointer pointer = stored.get(itemId);
+                if (pointer == null || (pointer.isValidAt(now) && !samePointers(pointer, expected.get(itemId)))) {
+                    inconsistent.add(itemId);
+                }
+            }
+        });
+        return inconsistent;
+    }
+
+    public int rebuild() {
+        int[] rebuilt = new int[1];
+        forEachItemBatch(itemIds -> {
+            refreshLocked(itemIds);
+            rebuilt[0] += itemIds.size();
+        });
+        log.info("Указатели на бронирования перестроены для {} вещей", rebuilt[0]);
+        return rebuilt[0];
+    }
+
+    private void refresh(List<Long> itemIds) {
+        pointerRepository.saveAll(compute(itemIds, LocalDateTime.now()));
+    }
+
+    private void refreshLocked(List<Long> itemIds) {
+        transactionTemplate.executeWithoutResult(status -> {
+            itemBookingLocks.lockAll(itemIds);
+            refresh(itemIds);
+        });
+    }
+
+    private void forEachItemBatch(Consumer<List<Long>> action) {
+        Long afterItemId = 0L;
+        List<Long> itemIds;
+
+        do {
+            itemIds = pointerRepository.findItemIdsAfter(afterItemId, PageRequest.of(0, batchSize));
+            if (itemIds.isEmpty()) {
+                return;
+            }
+            action.accept(itemIds);
+            afterItemId = itemIds.get(itemIds.size() - 1);
+        } while (itemIds.size() == batchSize);
+    }
+
+    private List<ItemBookingPointer> compute(List<Long> itemIds, LocalDateTime now) {
+        Map<Long, Booking> lastBookings = new HashMap<>();
+        Map<Long, Booking> nextBookings = new HashMap<>();
+        for (Booking booking : bookingRepository.findLastAndNextByItemIds(itemIds, now)) {
+            if (booking.getStart().isBefore(now)) {
+                lastBookings.put(booking.getItem().getId(), booking);
+            } else {
+                nextBookings.put(booking.getItem().getId(), booking);
+            }
+        }
+        Map<Long, LocalDateTime> nextStarts = new HashMap<>();
+        for (Object[] row : bookingRepository.findNextStartsByItemIds(itemIds, BookingIntervalIndex.ACTIVE_STATUSES, now)) {
+            nextStarts.put((Long) row[0], (LocalDateTime) row[1]);
+        }
+
+        List<ItemBookingPointer> pointers = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            pointers.add(new ItemBookingPointer(itemId, lastBookings.get(itemId), nextBookings.get(itemId), nextStarts.get(itemId)));
+        }
+        return pointers;
+    }
+
+    private static boolean samePointers(ItemBookingPointer stored, ItemBookingPointer expected) {
+        return Objects.equals(bookingId(stored.getLastBooking()), bookingId(expected.getLastBooking()))
+                && Objects.equals(bookingId(stored.getNextBooking()), bookingId(expected.getNextBooking()));
+    }
+
+    private static Long bookingId(Booking booking) {
+        return booking != null ? booking.getId() : null;
+    }
+}
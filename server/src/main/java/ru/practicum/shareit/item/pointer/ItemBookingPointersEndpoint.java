@@ -0,0 +1,31 @@
+package ru.practicum.shareit.item.pointer;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+@Component
+@Endpoint(id = "bookingpointers")
+@RequiredArgsConstructor
+public class ItemBookingPointersEndpoint {
+    private final ItemBookingPointers itemBookingPointers;
+
+    @ReadOperation
+    public Map<String, Object> check() {
+        List<Long> inconsistent = itemBookingPointers.findInconsistent();
+        return Map.of(
+                "consistent", inconsistent.isEmpty(),
+                "inconsistentItemIds", inconsistent
+        );
+    }
+
+    @WriteOperation
+    public Map<String, Object> rebuild() {
+        return Map.of("rebuilt", itemBookingPointers.rebuild());
+    }
+}
@@ -0,0 +1,353 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static ru.practicum.shareit.util.TransactionUtils.afterCommit;
+
+@Component
+@Slf4j
+public class ItemSearchIndex {
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final int GRAM_LENGTH = 3;
+
+    private final ItemRepository itemRepository;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<String, PostingList> namePostings = new HashMap<>();
+    private final Map<String, Set<String>> tokensByGram = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Set<Long> updatedDuringBuild;
+    private volatile boolean ready;
+
+    public ItemSearchIndex(ItemRepository itemRepository,
+                           @Value("${shareit.search.index.enabled:false}") boolean enabled,
+                           @Value("${shareit.search.index.batch-size:5000}") int batchSize) {
+        this.itemRepository = itemRepository;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (!enabled) {
+            return;
+        }
+
+        long startTime = System.currentTimeMillis();
+        long lastId = 0;
+        int indexed = 0;
+        List<ItemText> batch;
+        setUpdatedDuringBuild(new HashSet<>());
+
+        do {
+            batch = itemRepository.findAvailableTextsAfter(lastId, PageRequest.of(0, batchSize));
+
+            if (!batch.isEmpty()) {
+                List<ItemText> texts = withoutUpdatedDuringBuild(batch);
+                BatchPostings batchPostings = ForkJoinPool.commonPool()
+                        .invoke(new TokenizeTask(texts, 0, texts.size()));
+                merge(texts, batchPostings);
+                lastId = batch.get(batch.size() - 1).getId();
+                indexed += batch.size();
+            }
+        } while (batch.size() == batchSize);
+
+        setUpdatedDuringBuild(null);
+        ready = true;
+        log.info("Индекс поиска вещей построен: {} вещей, {} токенов за {} мс",
+                indexed, postings.size(), System.currentTimeMillis() - startTime);
+    }
+
+    public List<Long> search(String text, long offset, int size) {
+        Set<String> queryTokens = tokenize(text);
+
+        if (queryTokens.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        long[] matches = null;
+        long[] nameMatches = null;
+
+        lock.readLock().lock();
+        try {
+            for (String queryToken : queryTokens) {
+                List<String> tokens = findTokensContaining(queryToken);
+                long[] tokenMatches = PostingList.union(tokens.stream()
+                        .map(postings::get)
+                        .collect(Collectors.toList()));
+                long[] tokenNameMatches = PostingList.union(tokens.stream()
+                        .map(namePostings::get)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toList()));
+
+                matches = matches == null ? tokenMatches : PostingList.intersect(matches, tokenMatches);
+                nameMatches = nameMatches == null ? tokenNameMatches : PostingList.intersect(nameMatches, tokenNameMatches);
+
+                if (matches.length == 0) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        long[] byName = nameMatches;
+        return LongStream.concat(Arrays.stream(byName), Arrays.stream(matches).filter(id -> Arrays.binarySearch(byName, id) < 0))
+                .skip(offset)
+                .limit(size)
+                .boxed()
+                .collect(Collectors.toList());
+    }
+
+    public void index(Item item) {
+        reindex(null, item);
+    }
+
+    public void reindex(Item previous, Item current) {
+        if (!enabled) {
+            return;
+        }
+
+        long id = current.getId();
+        boolean wasIndexed = previous != null && Boolean.TRUE.equals(previous.getAvailable());
+        boolean isIndexed = Boolean.TRUE.equals(current.getAvailable());
+        Set<String> removed = wasIndexed ? tokenize(previous.getName() + " " + previous.getDescription()) : Set.of();
+        Set<String> added = isIndexed ? tokenize(current.getName() + " " + current.getDescription()) : Set.of();
+        Set<String> removedFromName = wasIndexed ? tokenize(previous.getName()) : Set.of();
+        Set<String> addedToName = isIndexed ? tokenize(current.getName()) : Set.of();
+
+        afterCommit(() -> apply(id, removed, added, removedFromName, addedToName));
+    }
+
+    static Set<String> tokenize(String text) {
+        return Arrays.stream(TOKEN_SEPARATOR.split(text.toLowerCase()))
+                .filter(token -> !token.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    static Set<String> grams(String token) {
+        Set<String> grams = new HashSet<>();
+        for (int length = 1; length <= Math.min(GRAM_LENGTH, token.length()); length++) {
+            for (int from = 0; from + length <= token.length(); from++) {
+                grams.add(token.substring(from, from + length));
+            }
+        }
+        return grams;
+    }
+
+    private List<String> findTokensContaining(String queryToken) {
+        Set<String> candidates = null;
+        Set<String> queryGrams = queryToken.length() <= GRAM_LENGTH ? Set.of(queryToken) : grams(queryToken).stream()
+                .filter(gram -> gram.length() == GRAM_LENGTH)
+                .collect(Collectors.toSet());
+
+        for (String gram : queryGrams) {
+            Set<String> tokens = tokensByGram.getOrDefault(gram, Set.of());
+            if (candidates == null) {
+                candidates = new HashSet<>(tokens);
+            } else {
+                candidates.retainAll(tokens);
+            }
+            if (candidates.isEmpty()) {
+                break;
+            }
+        }
+
+        return candidates.stream()
+                .filter(token -> token.contains(queryToken))
+                .collect(Collectors.toList());
+    }
+
+    private void apply(long id, Set<String> removed, Set<String> added, Set<String> removedFromName, Set<String> addedToName) {
+        lock.writeLock().lock();
+        try {
+            if (updatedDuringBuild != null) {
+                updatedDuringBuild.add(id);
+            }
+            for (String token : removedFromName) {
+                if (addedToName.contains(token)) {
+                    continue;
+                }
+
+                PostingList list = namePostings.get(token);
+
+                if (list != null) {
+                    list.remove(id);
+
+                    if (list.size() == 0) {
+                        namePostings.remove(token);
+                    }
+                }
+            }
+            for (String token : addedToName) {
+                namePostings.computeIfAbsent(token, key -> new PostingList()).add(id);
+            }
+            for (String token : removed) {
+                if (added.contains(token)) {
+                    continue;
+                }
+
+                PostingList list = postings.get(token);
+
+                if (list != null) {
+                    list.remove(id);
+
+                    if (list.size() == 0) {
+                        postings.remove(token);
+                        unregisterGrams(token);
+                    }
+                }
+            }
+            for (String token : added) {
+                postings.computeIfAbsent(token, this::newPostingList).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private List<ItemText> withoutUpdatedDuringBuild(List<ItemText> batch) {
+        lock.readLock().lock();
+        try {
+            return batch.stream()
+                    .filter(text -> !updatedDuringBuild.contains(text.getId()))
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void merge(List<ItemText> texts, BatchPostings batchPostings) {
+        lock.writeLock().lock();
+        try {
+            List<Long> updated = texts.stream()
+                    .map(ItemText::getId)
+                    .filter(updatedDuringBuild::contains)
+                    .collect(Collectors.toList());
+            batchPostings.all.forEach((token, list) -> {
+                updated.forEach(list::remove);
+                if (list.size() > 0) {
+                    postings.computeIfAbsent(token, this::newPostingList).addAll(list);
+                }
+            });
+            batchPostings.names.forEach((token, list) -> {
+                updated.forEach(list::remove);
+                if (list.size() > 0) {
+                    namePostings.computeIfAbsent(token, key -> new PostingList()).addAll(list);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void setUpdatedDuringBuild(Set<Long> ids) {
+        lock.writeLock().lock();
+        try {
+            updatedDuringBuild = ids;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private PostingList newPostingList(String token) {
+        for (String gram : grams(token)) {
+            tokensByGram.computeIfAbsent(gram, key -> new HashSet<>()).add(token);
+        }
+        return new PostingList();
+    }
+
+    private void unregisterGrams(String token) {
+        for (String gram : grams(token)) {
+            Set<String> tokens = tokensByGram.get(gram);
+            if (tokens != null) {
+                tokens.remove(token);
+                if (tokens.isEmpty()) {
+                    tokensByGram.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static class BatchPostings {
+        private final Map<String, PostingList> all = new HashMap<>();
+        private final Map<String, PostingList> names = new HashMap<>();
+
+        void add(ItemText item) {
+            for (String token : tokenize(item.getName() + " " + item.getDescription())) {
+                all.computeIfAbsent(token, key -> new PostingList()).add(item.getId());
+            }
+            for (String token : tokenize(item.getName())) {
+                names.computeIfAbsent(token, key -> new PostingList()).add(item.getId());
+            }
+        }
+
+        BatchPostings addAll(BatchPostings other) {
+            other.all.forEach((token, list) -> all.merge(token, list, PostingList::addAll));
+            other.names.forEach((token, list) -> names.merge(token, list, PostingList::addAll));
+            return this;
+        }
+    }
+
+    private static class TokenizeTask extends RecursiveTask<BatchPostings> {
+        private static final int THRESHOLD = 512;
+
+        private final List<ItemText> items;
+        private final int from;
+        private final int to;
+
+        TokenizeTask(List<ItemText> items, int from, int to) {
+            this.items = items;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected BatchPostings compute() {
+            if (to - from <= THRESHOLD) {
+                BatchPostings result = new BatchPostings();
+
+                for (ItemText item : items.subList(from, to)) {
+                    result.add(item);
+                }
+                return result;
+            }
+
+            int middle = (from + to) >>> 1;
+            TokenizeTask left = new TokenizeTask(items, from, middle);
+            TokenizeTask right = new TokenizeTask(items, middle, to);
+
+            left.fork();
+            BatchPostings rightResult = right.compute();
+            return left.join().addAll(rightResult);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+
+class PostingList {
+    private long[] ids;
+    private int size;
+
+    PostingList() {
+        ids = new long[4];
+    }
+
+    int size() {
+        return size;
+    }
+
+    long[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    void add(long id) {
+        if (size == 0 || ids[size - 1] < id) {
+            ensureCapacity(size + 1);
+            ids[size++] = id;
+            return;
+        }
+
+        int position = Arrays.binarySearch(ids, 0, size, id);
+
+        if (position >= 0) {
+            return;
+        }
+
+        int insertAt = -position - 1;
+        ensureCapacity(size + 1);
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        size++;
+    }
+
+    void remove(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+
+        if (position < 0) {
+            return;
+        }
+
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+    }
+
+    PostingList addAll(PostingList other) {
+        if (size == 0 || other.size == 0 || ids[size - 1] < other.ids[0]) {
+            ensureCapacity(size + other.size);
+            System.arraycopy(other.ids, 0, ids, size, other.size);
+            size += other.size;
+        } else {
+            for (int i = 0; i < other.size; i++) {
+                add(other.ids[i]);
+            }
+        }
+        return this;
+    }
+
+    void appendTo(long[] target, int offset) {
+        System.arraycopy(ids, 0, target, offset, size);
+    }
+
+    static long[] union(Iterable<PostingList> lists) {
+        int total = 0;
+
+        for (PostingList list : lists) {
+            total += list.size;
+        }
+
+        long[] result = new long[total];
+        int offset = 0;
+
+        for (PostingList list : lists) {
+            list.appendTo(result, offset);
+            offset += list.size;
+        }
+
+        Arrays.sort(result);
+        return distinct(result);
+    }
+
+    static long[] intersect(long[] left, long[] right) {
+        long[] result = new long[Math.min(left.length, right.length)];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[size++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static long[] distinct(long[] sorted) {
+        if (sorted.length == 0) {
+            return sorted;
+        }
+
+        int size = 1;
+
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] != sorted[size - 1]) {
+                sorted[size++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, size);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > ids.length) {
+            ids = Arrays.copyOf(ids, Math.max(capacity, ids.length + (ids.length >> 1)));
+        }
+    }
+}
@@ -1,13 +1,16 @@
 package ru.practicum.shareit.request;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
-    List<ItemRequest> findAllByRequestorIdOrderByCreatedDesc(Long requestorId);
+    @Query("SELECT r FROM ItemRequest r WHERE r.requestor.id = :requestorId ORDER BY r.created DESC")
+    List<ItemRequest> findAllByRequestorIdOrderByCreatedDesc(@Param("requestorId") Long requestorId);
 
-    Page<ItemRequest> findAllByRequestorIdNotOrderByCreatedDesc(Long requestorId, Pageable pageable);
+    Slice<ItemRequest> findAllByRequestorIdNotOrderByCreatedDesc(Long requestorId, Pageable pageable);
 }
@@ -10,10 +10,13 @@ import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemForItemRequestDto;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceIndex;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.request.ItemRequestMapper.toItemRequest;
@@ -26,6 +29,7 @@ import static ru.practicum.shareit.request.ItemRequestMapper.toItemRequestDto;
 public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository itemRequestRepository;
     private final UserRepository userRepository;
+    private final UserExistenceIndex userExistenceIndex;
     private final ItemRepository itemRepository;
 
     @Transactional
@@ -43,14 +47,13 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public List<ItemRequestDto> getOwnItemRequests(Long requestorId) {
-        userRepository.findById(requestorId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с ID=" + requestorId + " не найден!"));
+        if (!userExistenceIndex.exists(requestorId)) {
+            throw new NotFoundException("Пользователь с ID=" + requestorId + " не найден!");
+        }
 
         log.info("Получен список запросов пользователя с id: {}", requestorId);
 
-        return itemRequestRepository.findAllByRequestorIdOrderByCreatedDesc(requestorId).stream()
-                .map(ItemRequestMapper -> toItemRequestDto(ItemRequestMapper, getItemsByRequest(ItemRequestMapper.getId())))
-                .collect(Collectors.toList());
+        return toItemRequestDtos(itemRequestRepository.findAllByRequestorIdOrderByCreatedDesc(requestorId));
     }
 
     @Override
@@ -59,15 +62,14 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
         log.info("Получен список запросов других пользователей");
 
-        return itemRequestRepository.findAllByRequestorIdNotOrderByCreatedDesc(userId, page)
-                .map(ItemRequestMapper -> toItemRequestDto(ItemRequestMapper, getItemsByRequest(ItemRequestMapper.getId())))
-                .getContent();
+        return toItemRequestDtos(itemRequestRepository.findAllByRequestorIdNotOrderByCreatedDesc(userId, page).getContent());
     }
 
     @Override
     public ItemRequestDto getItemRequestById(Long userId, Long requestId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с ID=" + userId + " не найден!"));
+        if (!userExistenceIndex.exists(userId)) {
+            throw new NotFoundException("Пользователь с ID=" + userId + " не найден!");
+        }
         ItemRequest itemRequest = itemRequestRepository.findById(requestId)
                 .orElseThrow(() -> new NotFoundException("Запрос с ID=" + requestId + " не найден!"));
 
@@ -77,11 +79,26 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     List<ItemForItemRequestDto> getItemsByRequest(Long requestId) {
-        itemRequestRepository.findById(requestId)
-                .orElseThrow(() -> new NotFoundException("Запрос не найден!"));
-
         return itemRepository.findByRequest_IdOrderById(requestId).stream()
                 .map(ItemMapper::toItemForItemRequestDto)
                 .collect(Collectors.toList());
     }
+
+    private List<ItemRequestDto> toItemRequestDtos(List<ItemRequest> itemRequests) {
+        if (itemRequests.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Long> requestIds = itemRequests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<ItemForItemRequestDto>> itemsByRequest = itemRepository.findByRequest_IdInOrderById(requestIds).stream()
+                .map(ItemMapper::toItemForItemRequestDto)
+                .collect(Collectors.groupingBy(ItemForItemRequestDto::getRequestId));
+
+        return itemRequests.stream()
+                .map(itemRequest -> toItemRequestDto(itemRequest,
+                        itemsByRequest.getOrDefault(itemRequest.getId(), new ArrayList<>())))
+                .collect(Collectors.toList());
+    }
 }
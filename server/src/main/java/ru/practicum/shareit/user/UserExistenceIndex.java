@@ -0,0 +1,136 @@
+package ru.practicum.shareit.user;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static ru.practicum.shareit.util.TransactionUtils.afterCommit;
+
+@Component
+@Slf4j
+public class UserExistenceIndex {
+    private final UserRepository userRepository;
+    private final int batchSize;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private BitSet ids = new BitSet();
+    private Set<Long> largeIds = new HashSet<>();
+    private Set<Long> removedDuringLoad;
+
+    public UserExistenceIndex(UserRepository userRepository,
+                              @Value("${shareit.user-index.batch-size:10000}") int batchSize) {
+        this.userRepository = userRepository;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${shareit.user-index.reload-interval:60000}",
+            fixedDelayString = "${shareit.user-index.reload-interval:60000}")
+    public synchronized void load() {
+        lock.writeLock().lock();
+        try {
+            removedDuringLoad = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        BitSet loadedIds = new BitSet();
+        Set<Long> loadedLargeIds = new HashSet<>();
+        boolean loaded = false;
+        try {
+            Long afterId = 0L;
+            List<Long> batch;
+            do {
+                batch = userRepository.findIdsAfter(afterId, PageRequest.of(0, batchSize));
+                for (Long id : batch) {
+                    set(loadedIds, loadedLargeIds, id);
+                }
+                if (!batch.isEmpty()) {
+                    afterId = batch.get(batch.size() - 1);
+                }
+            } while (batch.size() == batchSize);
+            loaded = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (loaded) {
+                    removedDuringLoad.forEach(id -> clear(loadedIds, loadedLargeIds, id));
+                    ids = loadedIds;
+                    largeIds = loadedLargeIds;
+                }
+                removedDuringLoad = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.debug("Загружено {} идентификаторов пользователей", loadedIds.cardinality() + loadedLargeIds.size());
+    }
+
+    public boolean exists(Long id) {
+        if (id == null || id <= 0) {
+            return false;
+        }
+
+        lock.readLock().lock();
+        try {
+            if (id <= Integer.MAX_VALUE ? ids.get(id.intValue()) : largeIds.contains(id)) {
+                return true;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return userRepository.existsUserById(id);
+    }
+
+    public void add(Long id) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                set(ids, largeIds, id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void remove(Long id) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                clear(ids, largeIds, id);
+                if (removedDuringLoad != null) {
+                    removedDuringLoad.add(id);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private static void set(BitSet ids, Set<Long> largeIds, Long id) {
+        if (id > 0 && id <= Integer.MAX_VALUE) {
+            ids.set(id.intValue());
+        } else if (id > Integer.MAX_VALUE) {
+            largeIds.add(id);
+        }
+    }
+
+    private static void clear(BitSet ids, Set<Long> largeIds, Long id) {
+        if (id > 0 && id <= Integer.MAX_VALUE) {
+            ids.clear(id.intValue());
+        } else {
+            largeIds.remove(id);
+        }
+    }
+}
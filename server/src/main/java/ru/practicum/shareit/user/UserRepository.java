@@ -1,7 +1,18 @@
 package ru.practicum.shareit.user;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
+
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM users WHERE id = :id)", nativeQuery = true)
+    boolean existsUserById(@Param("id") Long id);
+
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterUserId ORDER BY u.id")
+    List<Long> findIdsAfter(@Param("afterUserId") Long afterUserId, Pageable pageable);
 }
@@ -6,18 +6,25 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exeption.AlreadyExistsException;
 import ru.practicum.shareit.exeption.NotFoundException;
+import ru.practicum.shareit.item.cache.ItemDetailsCache;
+import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.EntityManagerFactory;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.user.UserMapper.toUser;
 import static ru.practicum.shareit.user.UserMapper.toUserDto;
+import static ru.practicum.shareit.util.TransactionUtils.afterCommit;
 
 @Service
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserRepository repository;
+    private final ItemDetailsCache itemDetailsCache;
+    private final EntityManagerFactory entityManagerFactory;
+    private final UserExistenceIndex userExistenceIndex;
 
     @Override
     public List<UserDto> findAll() {
@@ -36,7 +43,9 @@ public class UserServiceImpl implements UserService {
     @Override
     public UserDto create(UserDto userDto) {
         try {
-            return toUserDto(repository.save(toUser(userDto)));
+            User user = repository.save(toUser(userDto));
+            userExistenceIndex.add(user.getId());
+            return toUserDto(user);
         } catch (DataIntegrityViolationException e) {
             throw new AlreadyExistsException("Пользователь с таким email уже существует");
         }
@@ -62,12 +71,17 @@ public class UserServiceImpl implements UserService {
             user.setEmail(userDto.getEmail());
         }
 
-        return toUserDto(repository.save(user));
+        User updatedUser = repository.save(user);
+        itemDetailsCache.evictAll();
+        return toUserDto(updatedUser);
     }
 
     @Transactional
     @Override
     public void delete(Long id) {
         repository.deleteById(id);
+        userExistenceIndex.remove(id);
+        itemDetailsCache.evictAll();
+        afterCommit(() -> entityManagerFactory.getCache().evict(Item.class));
     }
 }
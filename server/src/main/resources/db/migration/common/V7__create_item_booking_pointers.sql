@@ -0,0 +1,15 @@
+CREATE TABLE IF NOT EXISTS item_booking_pointers (
+    item_id BIGINT NOT NULL,
+    last_booking_id BIGINT,
+    next_booking_id BIGINT,
+    valid_until TIMESTAMP WITHOUT TIME ZONE,
+    CONSTRAINT item_booking_pointers_pkey PRIMARY KEY (item_id),
+    CONSTRAINT item_booking_pointers_item_id_fkey FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE,
+    CONSTRAINT item_booking_pointers_last_booking_id_fkey FOREIGN KEY (last_booking_id) REFERENCES bookings (id) ON DELETE SET NULL,
+    CONSTRAINT item_booking_pointers_next_booking_id_fkey FOREIGN KEY (next_booking_id) REFERENCES bookings (id) ON DELETE SET NULL
+);
+
+CREATE INDEX IF NOT EXISTS item_booking_pointers_valid_until_idx ON item_booking_pointers (valid_until);
+
+INSERT INTO item_booking_pointers (item_id, valid_until)
+SELECT id, TIMESTAMP '1970-01-01 00:00:00' FROM items;
@@ -0,0 +1,12 @@
+CREATE INDEX IF NOT EXISTS items_owner_id_idx ON items (owner_id, id);
+CREATE INDEX IF NOT EXISTS items_request_id_idx ON items (request_id, id);
+
+CREATE INDEX IF NOT EXISTS item_request_requestor_created_idx ON item_request (requestor_id, created DESC);
+CREATE INDEX IF NOT EXISTS item_request_created_idx ON item_request (created DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx ON bookings (booker_id, start_date DESC);
+CREATE INDEX IF NOT EXISTS bookings_booker_status_start_idx ON bookings (booker_id, status, start_date DESC);
+CREATE INDEX IF NOT EXISTS bookings_item_start_idx ON bookings (item_id, start_date, end_date, status, booker_id);
+CREATE INDEX IF NOT EXISTS bookings_item_booker_end_idx ON bookings (item_id, booker_id, end_date);
+
+CREATE INDEX IF NOT EXISTS comments_item_id_idx ON comments (item_id);
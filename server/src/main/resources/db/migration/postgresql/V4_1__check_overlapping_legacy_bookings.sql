@@ -0,0 +1,23 @@
+-- V5 adds an exclusion constraint over active bookings, and it fails if legacy rows already overlap
+-- or have an inverted period. Such rows are not rewritten here: the migration stops and lists them
+-- so that they can be resolved by hand before the constraint is added.
+DO $$
+DECLARE
+    inverted TEXT;
+    overlapping TEXT;
+BEGIN
+    SELECT string_agg(b.id::TEXT, ', ' ORDER BY b.id) INTO inverted
+    FROM bookings b
+    WHERE b.status IN ('WAITING', 'APPROVED') AND b.end_date < b.start_date;
+
+    SELECT string_agg(b.id || '/' || o.id, ', ' ORDER BY b.id, o.id) INTO overlapping
+    FROM bookings b
+    JOIN bookings o ON o.item_id = b.item_id AND o.id > b.id
+    WHERE b.status IN ('WAITING', 'APPROVED') AND o.status IN ('WAITING', 'APPROVED')
+      AND o.start_date < b.end_date AND o.end_date > b.start_date;
+
+    IF inverted IS NOT NULL OR overlapping IS NOT NULL THEN
+        RAISE EXCEPTION 'Active bookings conflict with bookings_item_period_excl; inverted periods: [%], overlapping pairs: [%]. Reject or correct them before migrating.',
+            COALESCE(inverted, ''), COALESCE(overlapping, '');
+    END IF;
+END $$;
@@ -0,0 +1,5 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS items_search_vector_idx ON items
+    USING GIN ((setweight(to_tsvector('simple', name), 'A') || setweight(to_tsvector('simple', description), 'B')))
+    WHERE is_available;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS items_name_trgm_idx ON items USING GIN (LOWER(name) gin_trgm_ops) WHERE is_available;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS items_description_trgm_idx ON items USING GIN (LOWER(description) gin_trgm_ops) WHERE is_available;
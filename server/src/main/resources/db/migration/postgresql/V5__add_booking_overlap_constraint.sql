@@ -0,0 +1,11 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- An exclusion constraint cannot be attached to an index built CONCURRENTLY, so this statement builds
+-- its GiST index and validates every booking while holding ACCESS EXCLUSIVE on bookings. Reads and
+-- writes of bookings wait for the whole build. Run the migration in a low-traffic window. lock_timeout
+-- makes the deploy fail fast instead of queueing behind long transactions and stalling all traffic.
+SET LOCAL lock_timeout = '10s';
+
+ALTER TABLE bookings ADD CONSTRAINT bookings_item_period_excl
+    EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date, '[)') WITH &&)
+    WHERE (status IN ('WAITING', 'APPROVED'));
@@ -0,0 +1,161 @@
+package ru.practicum.shareit;
+
+import lombok.SneakyThrows;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.pointer.ItemBookingPointers;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceIndex;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true", "shareit.scheduling.enabled=false"})
+@AutoConfigureMockMvc
+class QueryCountTest {
+    private static final String USER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private UserExistenceIndex userExistenceIndex;
+    @Autowired
+    private ItemBookingPointers itemBookingPointers;
+    private Statistics statistics;
+    private User owner;
+    private User booker;
+    private ItemRequest request1;
+    private Item item1;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManagerFactory.getCache().evictAll();
+        LocalDateTime now = LocalDateTime.now();
+
+        owner = userRepository.save(new User(null, "Owner", "owner@test.ru"));
+        booker = userRepository.save(new User(null, "Booker", "booker@test.ru"));
+        request1 = itemRequestRepository.save(new ItemRequest(null, "Нужна дрель", booker, now.minusDays(2)));
+        ItemRequest request2 = itemRequestRepository.save(new ItemRequest(null, "Нужна пила", booker, now.minusDays(1)));
+        ItemRequest request3 = itemRequestRepository.save(new ItemRequest(null, "Нужен молоток", booker, now));
+        item1 = itemRepository.save(new Item(null, "Дрель", "Аккумуляторная дрель", true, owner, request1));
+        Item item2 = itemRepository.save(new Item(null, "Пила", "Ручная пила", true, owner, request2));
+        Item item3 = itemRepository.save(new Item(null, "Молоток", "Дрель не нужна", true, owner, request3));
+        bookingRepository.save(new Booking(null, now.minusDays(3), now.minusDays(2), item1, booker, BookingStatus.APPROVED));
+        bookingRepository.save(new Booking(null, now.plusDays(1), now.plusDays(2), item2, booker, BookingStatus.APPROVED));
+        bookingRepository.save(new Booking(null, now.plusDays(3), now.plusDays(4), item3, booker, BookingStatus.WAITING));
+        commentRepository.save(new Comment(null, "Отличная дрель", item1, booker, now.minusDays(1)));
+        userExistenceIndex.load();
+        itemBookingPointers.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        itemRequestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void getAllUserBookings() {
+        assertEquals(1, countStatements(get("/bookings").header(USER, booker.getId())));
+    }
+
+    @Test
+    void getAllUserBookingsWithUnknownUser() {
+        assertEquals(1, countStatements(get("/bookings").header(USER, booker.getId() + 100), status().isNotFound()));
+    }
+
+    @Test
+    void getItemRequestByIdWithCachedRequest() {
+        countStatements(get("/requests/" + request1.getId()).header(USER, owner.getId()));
+
+        assertEquals(1, countStatements(get("/requests/" + request1.getId()).header(USER, owner.getId())));
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void getAllUserBookingsByCursor() {
+        assertEquals(1, countStatements(get("/bookings").header(USER, booker.getId()).param("cursor", "")));
+    }
+
+    @Test
+    void getOwnerBookings() {
+        assertEquals(1, countStatements(get("/bookings/owner").header(USER, owner.getId())));
+    }
+
+    @Test
+    void getOwnerBookingsByCursor() {
+        assertEquals(1, countStatements(get("/bookings/owner").header(USER, owner.getId()).param("cursor", "")));
+    }
+
+    @Test
+    void getItemsByOwner() {
+        assertEquals(3, countStatements(get("/items").header(USER, owner.getId()).param("size", "2")));
+    }
+
+    @Test
+    void getItemByIdForOwnerWithCachedItem() {
+        countStatements(get("/items/" + item1.getId()).header(USER, owner.getId()));
+
+        assertEquals(1, countStatements(get("/items/" + item1.getId()).header(USER, owner.getId())));
+    }
+
+    @Test
+    void getItemsBySearchQuery() {
+        assertEquals(2, countStatements(get("/items/search").header(USER, booker.getId()).param("text", "дрель").param("size", "1")));
+    }
+
+    @Test
+    void getAllItemRequests() {
+        assertEquals(2, countStatements(get("/requests/all").header(USER, owner.getId()).param("size", "2")));
+    }
+
+    private long countStatements(MockHttpServletRequestBuilder request) {
+        return countStatements(request, status().isOk());
+    }
+
+    @SneakyThrows
+    private long countStatements(MockHttpServletRequestBuilder request, ResultMatcher expectedStatus) {
+        statistics.clear();
+        mvc.perform(request).andExpect(expectedStatus);
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,308 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.ClassUtils;
+import ru.practicum.shareit.booking.BookingCursor;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.pointer.ItemBookingPointerRepository;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+class SchemaIndexTest {
+    private static final LocalDateTime NOW = LocalDateTime.now();
+    private static final List<BookingStatus> ACTIVE = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+    private static final PageRequest BOOKING_PAGE = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "start"));
+    private static final PageRequest PAGE = PageRequest.of(0, 10);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private StatementRecorder statementRecorder;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemBookingPointerRepository pointerRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    static Stream<Arguments> repositoryQueries() {
+        return Stream.of(
+                query("BookingRepository.findByBookerIdAndStartIsBeforeAndEndIsAfter",
+                        test -> test.bookingRepository.findByBookerIdAndStartIsBeforeAndEndIsAfter(1L, NOW, NOW, BOOKING_PAGE),
+                        "BOOKINGS.BOOKER_ID"),
+                query("BookingRepository.findByBookerIdAndEndBefore",
+                        test -> test.bookingRepository.findByBookerIdAndEndBefore(1L, NOW, BOOKING_PAGE),
+                        "BOOKINGS.BOOKER_ID"),
+                query("BookingRepository.findByBookerIdAndStartAfter",
+                        test -> test.bookingRepository.findByBookerIdAndStartAfter(1L, NOW, BOOKING_PAGE),
+                        "BOOKINGS.BOOKER_ID"),
+                query("BookingRepository.findByBookerIdAndStatus",
+                        test -> test.bookingRepository.findByBookerIdAndStatus(1L, BookingStatus.WAITING, BOOKING_PAGE),
+                        "BOOKINGS.BOOKER_ID"),
+                query("BookingRepository.findByBookerId",
+                        test -> test.bookingRepository.findByBookerId(1L, BOOKING_PAGE),
+                        "BOOKINGS.BOOKER_ID"),
+                query("BookingRepository.findByItemOwnerId",
+                        test -> test.bookingRepository.findByItemOwnerId(1L, BOOKING_PAGE),
+                        "ITEMS.OWNER_ID", "BOOKINGS.ITEM_ID"),
+                query("BookingRepository.findByBookerIdAfterCursor",
+                        test -> test.bookingRepository.findByBookerIdAfterCursor(1L, BookingState.ALL, new BookingCursor(NOW, 10L), NOW, 10),
+                        "BOOKINGS.BOOKER_ID"),
+                query("BookingRepository.findByItemOwnerIdAfterCursor",
+                        test -> test.bookingRepository.findByItemOwnerIdAfterCursor(1L, BookingState.ALL, new BookingCursor(NOW, 10L), NOW, 10),
+                        "ITEMS.OWNER_ID", "BOOKINGS.ITEM_ID"),
+                query("BookingRepository.findFirstByItem_IdAndStartBeforeOrderByEndDesc",
+                        test -> test.bookingRepository.findFirstByItem_IdAndStartBeforeOrderByEndDesc(1L, NOW),
+                        "BOOKINGS.ITEM_ID"),
+                query("BookingRepository.findFirstByItem_IdAndStartAfterAndStatusOrderByStartAsc",
+                        test -> test.bookingRepository.findFirstByItem_IdAndStartAfterAndStatusOrderByStartAsc(1L, NOW, BookingStatus.APPROVED),
+                        "BOOKINGS.ITEM_ID"),
+                query("BookingRepository.findFirstByItem_IdAndBooker_IdAndEndIsBeforeAndStatus",
+                        test -> test.bookingRepository.findFirstByItem_IdAndBooker_IdAndEndIsBeforeAndStatus(1L, 2L, NOW, BookingStatus.APPROVED),
+                        "BOOKINGS.ITEM_ID"),
+                query("BookingRepository.findLastAndNextByItemIds",
+                        test -> test.bookingRepository.findLastAndNextByItemIds(List.of(1L, 2L, 3L), NOW),
+                        "BOOKINGS.ITEM_ID"),
+                query("BookingRepository.findActiveByItemId",
+                        test -> test.bookingRepository.findActiveByItemId(1L, ACTIVE, NOW),
+                        "BOOKINGS.ITEM_ID"),
+                query("BookingRepository.existsOverlappingForItem",
+                        test -> test.bookingRepository.existsOverlappingForItem(1L, ACTIVE, NOW, NOW.plusDays(1)),
+                        "BOOKINGS.ITEM_ID"),
+                query("BookingRepository.existsOverlapping",
+                        test -> test.bookingRepository.existsOverlapping(1L, 2L, ACTIVE, NOW, NOW.plusDays(1)),
+                        "BOOKINGS.ITEM_ID"),
+                query("BookingRepository.findOverlapping",
+                        test -> test.bookingRepository.findOverlapping(1L, ACTIVE, NOW, NOW.plusDays(1)),
+                        "BOOKINGS.ITEM_ID"),
+                query("BookingRepository.findUpcomingAfter",
+                        test -> test.bookingRepository.findUpcomingAfter(0L, ACTIVE, NOW, PAGE),
+                        "BOOKINGS.ID"),
+                query("BookingRepository.findNextStartsByItemIds",
+                        test -> test.bookingRepository.findNextStartsByItemIds(List.of(1L, 2L), ACTIVE, NOW),
+                        "BOOKINGS.ITEM_ID"),
+                query("ItemBookingPointerRepository.findByItemIdIn",
+                        test -> test.pointerRepository.findByItemIdIn(List.of(1L, 2L)),
+                        "ITEM_BOOKING_POINTERS.ITEM_ID"),
+                query("ItemBookingPointerRepository.findExpiredItemIds",
+                        test -> test.pointerRepository.findExpiredItemIds(NOW, PAGE),
+                        "ITEM_BOOKING_POINTERS.VALID_UNTIL"),
+                query("ItemBookingPointerRepository.findItemIdsAfter",
+                        test -> test.pointerRepository.findItemIdsAfter(0L, PAGE),
+                        "ITEMS.ID"),
+                query("ItemRepository.findByOwner_Id",
+                        test -> test.itemRepository.findByOwner_Id(1L, PAGE),
+                        "ITEMS.OWNER_ID"),
+                query("ItemRepository.findDtosByIdIn",
+                        test -> test.itemRepository.findDtosByIdIn(List.of(1L, 2L)),
+                        "ITEMS.ID"),
+                query("ItemRepository.findByRequest_IdOrderById",
+                        test -> test.itemRepository.findByRequest_IdOrderById(1L),
+                        "ITEMS.REQUEST_ID"),
+                query("ItemRepository.findByRequest_IdInOrderById",
+                        test -> test.itemRepository.findByRequest_IdInOrderById(List.of(1L, 2L)),
+                        "ITEMS.REQUEST_ID"),
+                query("ItemRepository.findAvailableTextsAfter",
+                        test -> test.itemRepository.findAvailableTextsAfter(0L, PAGE),
+                        "ITEMS.ID"),
+                query("CommentRepository.findByItemId",
+                        test -> test.commentRepository.findByItemId(1L),
+                        "COMMENTS.ITEM_ID"),
+                query("CommentRepository.findByItemIdIn",
+                        test -> test.commentRepository.findByItemIdIn(List.of(1L, 2L)),
+                        "COMMENTS.ITEM_ID"),
+                query("ItemRequestRepository.findAllByRequestorIdOrderByCreatedDesc",
+                        test -> test.itemRequestRepository.findAllByRequestorIdOrderByCreatedDesc(1L),
+                        "ITEM_REQUEST.REQUESTOR_ID"),
+                query("ItemRequestRepository.findAllByRequestorIdNotOrderByCreatedDesc",
+                        test -> test.itemRequestRepository.findAllByRequestorIdNotOrderByCreatedDesc(1L, PAGE),
+                        "ITEM_REQUEST.CREATED"),
+                query("UserRepository.existsByEmail",
+                        test -> test.userRepository.existsByEmail("test@test.ru"),
+                        "USERS.EMAIL"),
+                query("UserRepository.findIdsAfter",
+                        test -> test.userRepository.findIdsAfter(0L, PAGE),
+                        "USERS.ID"),
+                query("UserRepository.existsUserById",
+                        test -> test.userRepository.existsUserById(1L),
+                        "USERS.ID")
+        );
+    }
+
+    static Stream<Arguments> indexes() {
+        return Stream.of(
+                Arguments.of("ITEMS_OWNER_ID_IDX", List.of("OWNER_ID", "ID")),
+                Arguments.of("ITEMS_REQUEST_ID_IDX", List.of("REQUEST_ID", "ID")),
+                Arguments.of("ITEM_REQUEST_REQUESTOR_CREATED_IDX", List.of("REQUESTOR_ID", "CREATED")),
+                Arguments.of("ITEM_REQUEST_CREATED_IDX", List.of("CREATED")),
+                Arguments.of("BOOKINGS_BOOKER_START_IDX", List.of("BOOKER_ID", "START_DATE")),
+                Arguments.of("BOOKINGS_BOOKER_STATUS_START_IDX", List.of("BOOKER_ID", "STATUS", "START_DATE")),
+                Arguments.of("BOOKINGS_ITEM_START_IDX", List.of("ITEM_ID", "START_DATE", "END_DATE", "STATUS", "BOOKER_ID")),
+                Arguments.of("BOOKINGS_ITEM_BOOKER_END_IDX", List.of("ITEM_ID", "BOOKER_ID", "END_DATE")),
+                Arguments.of("COMMENTS_ITEM_ID_IDX", List.of("ITEM_ID")),
+                Arguments.of("ITEM_BOOKING_POINTERS_VALID_UNTIL_IDX", List.of("VALID_UNTIL"))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryQueries")
+    void repositoryQueryShouldReadThroughIndex(String repositoryMethod, Consumer<SchemaIndexTest> call, List<String> indexedColumns) {
+        List<RecordedStatement> statements = statementRecorder.record(() -> call.accept(this));
+        assertEquals(1, statements.size(), repositoryMethod + " выполнил запросы: " + statements);
+
+        RecordedStatement statement = statements.get(0);
+        String plan = jdbcTemplate.query("EXPLAIN " + statement.sql, ps -> {
+            for (Map.Entry<Integer, Object> parameter : statement.parameters.entrySet()) {
+                ps.setObject(parameter.getKey(), parameter.getValue());
+            }
+        }, rs -> rs.next() ? rs.getString(1) : "");
+
+        for (String indexedColumn : indexedColumns) {
+            String[] tableAndColumn = indexedColumn.split("\\.");
+            List<String> indexNames = jdbcTemplate.queryForList("SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEX_COLUMNS " +
+                    "WHERE TABLE_NAME = ? AND COLUMN_NAME = ? AND ORDINAL_POSITION = 1", String.class, tableAndColumn[0], tableAndColumn[1]);
+            Pattern indexAccess = Pattern.compile("/\\* PUBLIC\\.(" + String.join("|", indexNames) + ")[: ]");
+            assertTrue(!indexNames.isEmpty() && indexAccess.matcher(plan).find(),
+                    repositoryMethod + " читает " + tableAndColumn[0] + " не по индексу на " + tableAndColumn[1] + ":\n"
+                            + statement.sql + "\n" + plan);
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("indexes")
+    void indexShouldExist(String indexName, List<String> columns) {
+        List<String> actualColumns = jdbcTemplate.queryForList("SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.INDEX_COLUMNS " +
+                "WHERE INDEX_NAME = ? ORDER BY ORDINAL_POSITION", String.class, indexName);
+
+        assertEquals(columns, actualColumns);
+    }
+
+    private static Arguments query(String repositoryMethod, Consumer<SchemaIndexTest> call, String... indexedColumns) {
+        return Arguments.of(repositoryMethod, call, List.of(indexedColumns));
+    }
+
+    @TestConfiguration
+    static class StatementRecorderConfig {
+        @Bean
+        static StatementRecorder statementRecorder() {
+            return new StatementRecorder();
+        }
+    }
+
+    static class RecordedStatement {
+        private final String sql;
+        private final Map<Integer, Object> parameters = new TreeMap<>();
+
+        RecordedStatement(String sql) {
+            this.sql = sql;
+        }
+
+        @Override
+        public String toString() {
+            return sql + " " + parameters;
+        }
+    }
+
+    static class StatementRecorder implements BeanPostProcessor {
+        private List<RecordedStatement> recorded;
+
+        List<RecordedStatement> record(Runnable action) {
+            recorded = new ArrayList<>();
+            try {
+                action.run();
+                return recorded;
+            } finally {
+                recorded = null;
+            }
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource)) {
+                return bean;
+            }
+            return proxy(bean, (target, method, args) -> {
+                Object result = invoke(target, method, args);
+                return result instanceof Connection ? proxyConnection((Connection) result) : result;
+            });
+        }
+
+        private Object proxyConnection(Connection connection) {
+            return proxy(connection, (target, method, args) -> {
+                Object result = invoke(target, method, args);
+                if (result instanceof PreparedStatement && method.getName().equals("prepareStatement")) {
+                    return proxyStatement((PreparedStatement) result, new RecordedStatement((String) args[0]));
+                }
+                return result;
+            });
+        }
+
+        private Object proxyStatement(PreparedStatement statement, RecordedStatement recordedStatement) {
+            return proxy(statement, (target, method, args) -> {
+                String name = method.getName();
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                    recordedStatement.parameters.put((Integer) args[0], name.equals("setNull") ? null : args[1]);
+                } else if (name.startsWith("execute") && recorded != null) {
+                    recorded.add(recordedStatement);
+                }
+                return invoke(target, method, args);
+            });
+        }
+
+        private static Object proxy(Object target, Handler handler) {
+            return Proxy.newProxyInstance(target.getClass().getClassLoader(), ClassUtils.getAllInterfaces(target),
+                    (proxy, method, args) -> handler.handle(target, method, args));
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private interface Handler {
+            Object handle(Object target, Method method, Object[] args) throws Throwable;
+        }
+    }
+}
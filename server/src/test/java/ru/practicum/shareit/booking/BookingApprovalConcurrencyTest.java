@@ -0,0 +1,97 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.exeption.ConflictException;
+import ru.practicum.shareit.exeption.ValidationException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceIndex;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class BookingApprovalConcurrencyTest {
+    private static final int THREADS = 32;
+    private static final int APPROVALS = 300;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private UserExistenceIndex userExistenceIndex;
+    private User owner;
+    private Booking booking;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        owner = userRepository.save(new User(null, "Owner", "concurrency-owner-" + System.nanoTime() + "@test.ru"));
+        User booker = userRepository.save(new User(null, "Booker", "concurrency-booker-" + System.nanoTime() + "@test.ru"));
+        Item item = itemRepository.save(new Item(null, "Дрель", "Аккумуляторная дрель", true, owner, null));
+        booking = bookingRepository.save(new Booking(null, now.plusDays(1), now.plusDays(2), item, booker, BookingStatus.WAITING));
+        userExistenceIndex.load();
+    }
+
+    @Test
+    void shouldApplyExactlyOneOfParallelStatusChanges() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<BookingDto>> results = new ArrayList<>();
+
+        for (int i = 0; i < APPROVALS; i++) {
+            boolean approved = i % 2 == 0;
+            Callable<BookingDto> approval = () -> {
+                startSignal.await();
+                return bookingService.update(owner.getId(), approved, booking.getId());
+            };
+            results.add(executor.submit(approval));
+        }
+        startSignal.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        List<BookingDto> applied = new ArrayList<>();
+        int rejected = 0;
+        for (Future<BookingDto> result : results) {
+            try {
+                applied.add(result.get());
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                assertTrue(cause instanceof ConflictException
+                        || cause instanceof ConcurrencyFailureException
+                        || cause instanceof ValidationException, () -> "Неожиданная ошибка: " + cause);
+                rejected++;
+            }
+        }
+
+        assertEquals(1, applied.size());
+        assertEquals(APPROVALS - 1, rejected);
+        Booking stored = bookingRepository.findById(booking.getId()).orElseThrow();
+        assertEquals(applied.get(0).getStatus(), stored.getStatus());
+        assertEquals(1L, stored.getVersion());
+    }
+}
@@ -6,11 +6,15 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.InputBookingDto;
 import ru.practicum.shareit.exeption.UnsupportedStatusException;
+import ru.practicum.shareit.idempotency.IdempotencyStore;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 
@@ -23,11 +27,14 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = BookingController.class)
+@Import(IdempotencyStore.class)
 class BookingControllerTest {
     @Autowired
     private ObjectMapper mapper;
@@ -64,6 +71,35 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.status", is(bookingDto.getStatus().toString())));
     }
 
+    @SneakyThrows
+    @Test
+    void createWithIdempotencyKeyReturnsOriginalBooking() {
+        when(bookingService.create(1L, inputBookingDto)).thenReturn(bookingDto);
+
+        for (int i = 0; i < 2; i++) {
+            mvc.perform(post("/bookings")
+                            .content(mapper.writeValueAsString(inputBookingDto))
+                            .characterEncoding(StandardCharsets.UTF_8)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .accept(MediaType.APPLICATION_JSON)
+                            .header(USER, 1)
+                            .header(IdempotencyStore.IDEMPOTENCY_KEY, "booking-key"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id", is(bookingDto.getId()), Long.class));
+        }
+        verify(bookingService, times(1)).create(1L, inputBookingDto);
+
+        InputBookingDto otherBooking = new InputBookingDto(inputBookingDto.getStart().plusDays(5), inputBookingDto.getEnd().plusDays(5), item.getId());
+        mvc.perform(post("/bookings")
+                        .content(mapper.writeValueAsString(otherBooking))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(USER, 1)
+                        .header(IdempotencyStore.IDEMPOTENCY_KEY, "booking-key"))
+                .andExpect(status().isConflict());
+    }
+
     @SneakyThrows
     @Test
     void update() {
@@ -162,4 +198,35 @@ class BookingControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.error").value("Unknown state: UNSUPPORTED_STATUS"));
     }
-}
\ No newline at end of file
+
+    @SneakyThrows
+    @Test
+    void getAllUserBookingsByCursor() {
+        when(bookingService.getAllUserBookings(any(Long.class), eq("ALL"), eq(""), eq(1)))
+                .thenReturn(new SliceImpl<>(List.of(bookingDto), PageRequest.of(0, 1), true));
+
+        mvc.perform(get("/bookings")
+                        .header(USER, 1)
+                        .queryParam("state", "ALL")
+                        .queryParam("cursor", "")
+                        .queryParam("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", new BookingCursor(bookingDto.getStart(), bookingDto.getId()).encode()))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(bookingDto.getId()), Long.class));
+    }
+
+    @SneakyThrows
+    @Test
+    void getOwnerBookingsByCursorOnLastPage() {
+        when(bookingService.getOwnerBookings(any(Long.class), eq("ALL"), eq("cursor"), eq(10)))
+                .thenReturn(new SliceImpl<>(List.of(bookingDto), PageRequest.of(0, 10), false));
+
+        mvc.perform(get("/bookings/owner")
+                        .header(USER, 1)
+                        .queryParam("cursor", "cursor"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+}
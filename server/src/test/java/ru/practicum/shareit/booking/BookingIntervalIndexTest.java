@@ -0,0 +1,96 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexTest {
+    private final LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+    private final Item item = new Item(1L, "Дрель", "Аккумуляторная дрель", true, null, null);
+
+    @Mock
+    private BookingRepository bookingRepository;
+    private BookingIntervalIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookingIntervalIndex(bookingRepository, 100, 60_000);
+    }
+
+    @Test
+    void shouldDetectOverlapWithLoadedBookings() {
+        when(bookingRepository.findActiveByItemId(eq(item.getId()), eq(BookingIntervalIndex.ACTIVE_STATUSES), any(LocalDateTime.class)))
+                .thenReturn(List.of(booking(1L, start, start.plusHours(2)), booking(2L, start.plusHours(4), start.plusHours(6))));
+
+        assertTrue(index.overlaps(item.getId(), start.plusHours(1), start.plusHours(3)));
+        assertTrue(index.overlaps(item.getId(), start.minusHours(1), start.plusHours(7)));
+        assertTrue(index.overlaps(item.getId(), start.plusHours(5), start.plusHours(5).plusMinutes(30)));
+        assertFalse(index.overlaps(item.getId(), start.plusHours(2), start.plusHours(4)));
+        assertFalse(index.overlaps(item.getId(), start.minusHours(2), start));
+        assertFalse(index.overlaps(item.getId(), start.plusHours(6), start.plusHours(8)));
+        verify(bookingRepository, times(1)).findActiveByItemId(eq(item.getId()), eq(BookingIntervalIndex.ACTIVE_STATUSES), any(LocalDateTime.class));
+    }
+
+    @Test
+    void shouldDetectOverlapWithLongEarlierBookingAmongOverlappingLegacyBookings() {
+        when(bookingRepository.findActiveByItemId(eq(item.getId()), eq(BookingIntervalIndex.ACTIVE_STATUSES), any(LocalDateTime.class)))
+                .thenReturn(List.of(booking(1L, start, start.plusDays(3)), booking(2L, start.plusHours(1), start.plusHours(2))));
+
+        assertTrue(index.overlaps(item.getId(), start.plusDays(1), start.plusDays(2)));
+        assertFalse(index.overlaps(item.getId(), start.plusDays(3), start.plusDays(4)));
+    }
+
+    @Test
+    void shouldTrackAddedAndRemovedBookings() {
+        when(bookingRepository.findActiveByItemId(eq(item.getId()), eq(BookingIntervalIndex.ACTIVE_STATUSES), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+        Booking booking = booking(1L, start, start.plusHours(2));
+
+        assertFalse(index.overlaps(item.getId(), start, start.plusHours(1)));
+        index.add(booking);
+        assertTrue(index.overlaps(item.getId(), start, start.plusHours(1)));
+        index.remove(booking);
+        assertFalse(index.overlaps(item.getId(), start, start.plusHours(1)));
+    }
+
+    @Test
+    void shouldNarrowScanAfterLongestBookingIsRemoved() {
+        Booking longBooking = booking(1L, start, start.plusDays(30));
+        when(bookingRepository.findActiveByItemId(eq(item.getId()), eq(BookingIntervalIndex.ACTIVE_STATUSES), any(LocalDateTime.class)))
+                .thenReturn(List.of(longBooking, booking(2L, start.plusDays(1), start.plusDays(1).plusHours(2))));
+
+        assertTrue(index.overlaps(item.getId(), start.plusDays(10), start.plusDays(11)));
+        index.remove(longBooking);
+        assertFalse(index.overlaps(item.getId(), start.plusDays(10), start.plusDays(11)));
+        assertTrue(index.overlaps(item.getId(), start.plusDays(1).plusHours(1), start.plusDays(2)));
+    }
+
+    @Test
+    void shouldReloadInvalidatedItem() {
+        when(bookingRepository.findActiveByItemId(eq(item.getId()), eq(BookingIntervalIndex.ACTIVE_STATUSES), any(LocalDateTime.class)))
+                .thenReturn(List.of(booking(1L, start, start.plusHours(2))), List.of());
+
+        assertTrue(index.overlaps(item.getId(), start, start.plusHours(1)));
+        index.invalidate(item.getId());
+        assertFalse(index.overlaps(item.getId(), start, start.plusHours(1)));
+    }
+
+    private Booking booking(Long id, LocalDateTime start, LocalDateTime end) {
+        return new Booking(id, start, end, item, null, BookingStatus.APPROVED);
+    }
+}
@@ -5,17 +5,21 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 class BookingRepositoryTest {
@@ -36,7 +40,7 @@ class BookingRepositoryTest {
 
     @BeforeEach
     void setUp() {
-        currentTime = LocalDateTime.now();
+        currentTime = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
         page = PageRequest.of(0, 10);
         owner = userRepository.save(new User(1L, "Name", "test@test.ru"));
         booker = userRepository.save(new User(2L, "Requestor", "mail@test.ru"));
@@ -56,8 +60,8 @@ class BookingRepositoryTest {
         booking1 = bookingRepository.save(new Booking(1L, currentTime.minusHours(1), currentTime.plusHours(1), item1, booker, BookingStatus.APPROVED));
         booking2 = bookingRepository.save(new Booking(2L, currentTime.plusHours(3), currentTime.plusHours(4), item2, booker, BookingStatus.APPROVED));
 
-        Page<Booking> bookingPage = bookingRepository.findByBookerIdAndStartIsBeforeAndEndIsAfter(booker.getId(), currentTime, currentTime, page);
-        List<Booking> bookings = bookingPage.toList();
+        Slice<BookingDto> bookingPage = bookingRepository.findByBookerIdAndStartIsBeforeAndEndIsAfter(booker.getId(), currentTime, currentTime, page);
+        List<BookingDto> bookings = bookingPage.toList();
 
         assertEquals(1, bookings.size());
         assertEquals(booking1.getId(), bookings.get(0).getId());
@@ -68,8 +72,8 @@ class BookingRepositoryTest {
         booking1 = bookingRepository.save(new Booking(1L, currentTime.minusHours(4), currentTime.minusHours(1), item1, booker, BookingStatus.APPROVED));
         booking2 = bookingRepository.save(new Booking(2L, currentTime.plusHours(3), currentTime.plusHours(4), item2, booker, BookingStatus.APPROVED));
 
-        Page<Booking> bookingPage = bookingRepository.findByBookerIdAndEndBefore(booker.getId(), currentTime, page);
-        List<Booking> bookings = bookingPage.toList();
+        Slice<BookingDto> bookingPage = bookingRepository.findByBookerIdAndEndBefore(booker.getId(), currentTime, page);
+        List<BookingDto> bookings = bookingPage.toList();
 
         assertEquals(1, bookings.size());
         assertEquals(booking1.getId(), bookings.get(0).getId());
@@ -80,8 +84,8 @@ class BookingRepositoryTest {
         booking1 = bookingRepository.save(new Booking(1L, currentTime.minusHours(1), currentTime.plusHours(1), item1, booker, BookingStatus.APPROVED));
         booking2 = bookingRepository.save(new Booking(2L, currentTime.plusHours(3), currentTime.plusHours(4), item2, booker, BookingStatus.APPROVED));
 
-        Page<Booking> bookingPage = bookingRepository.findByBookerIdAndStartAfter(booker.getId(), currentTime, page);
-        List<Booking> bookings = bookingPage.toList();
+        Slice<BookingDto> bookingPage = bookingRepository.findByBookerIdAndStartAfter(booker.getId(), currentTime, page);
+        List<BookingDto> bookings = bookingPage.toList();
 
         assertEquals(1, bookings.size());
         assertEquals(booking2.getId(), bookings.get(0).getId());
@@ -92,10 +96,10 @@ class BookingRepositoryTest {
         booking1 = bookingRepository.save(new Booking(1L, currentTime.minusHours(1), currentTime.plusHours(1), item1, booker, BookingStatus.WAITING));
         booking2 = bookingRepository.save(new Booking(2L, currentTime.plusHours(3), currentTime.plusHours(4), item2, booker, BookingStatus.REJECTED));
 
-        Page<Booking> waitigPage = bookingRepository.findByBookerIdAndStatus(booker.getId(), BookingStatus.WAITING, page);
-        Page<Booking> rejectedPage = bookingRepository.findByBookerIdAndStatus(booker.getId(), BookingStatus.REJECTED, page);
-        List<Booking> waitingBookings = waitigPage.toList();
-        List<Booking> rejectedBookings = rejectedPage.toList();
+        Slice<BookingDto> waitigPage = bookingRepository.findByBookerIdAndStatus(booker.getId(), BookingStatus.WAITING, page);
+        Slice<BookingDto> rejectedPage = bookingRepository.findByBookerIdAndStatus(booker.getId(), BookingStatus.REJECTED, page);
+        List<BookingDto> waitingBookings = waitigPage.toList();
+        List<BookingDto> rejectedBookings = rejectedPage.toList();
 
         assertEquals(1, waitingBookings.size());
         assertEquals(1, rejectedBookings.size());
@@ -108,8 +112,8 @@ class BookingRepositoryTest {
         booking1 = bookingRepository.save(new Booking(1L, currentTime.minusHours(1), currentTime.plusHours(1), item1, booker, BookingStatus.APPROVED));
         booking2 = bookingRepository.save(new Booking(2L, currentTime.plusHours(3), currentTime.plusHours(4), item2, booker, BookingStatus.APPROVED));
 
-        Page<Booking> bookingPage = bookingRepository.findByBookerId(booker.getId(), page);
-        List<Booking> bookings = bookingPage.toList();
+        Slice<BookingDto> bookingPage = bookingRepository.findByBookerId(booker.getId(), page);
+        List<BookingDto> bookings = bookingPage.toList();
 
         assertEquals(2, bookings.size());
         assertEquals(booking1.getId(), bookings.get(0).getId());
@@ -121,8 +125,8 @@ class BookingRepositoryTest {
         booking1 = bookingRepository.save(new Booking(1L, currentTime.minusHours(1), currentTime.plusHours(1), item1, booker, BookingStatus.APPROVED));
         booking2 = bookingRepository.save(new Booking(2L, currentTime.plusHours(3), currentTime.plusHours(4), item2, booker, BookingStatus.APPROVED));
 
-        Page<Booking> bookingPage = bookingRepository.findByItemOwnerIdAndStartIsBeforeAndEndAfter(owner.getId(), currentTime, currentTime, page);
-        List<Booking> bookings = bookingPage.toList();
+        Slice<BookingDto> bookingPage = bookingRepository.findByItemOwnerIdAndStartIsBeforeAndEndAfter(owner.getId(), currentTime, currentTime, page);
+        List<BookingDto> bookings = bookingPage.toList();
 
         assertEquals(1, bookings.size());
         assertEquals(booking1.getId(), bookings.get(0).getId());
@@ -133,8 +137,8 @@ class BookingRepositoryTest {
         booking1 = bookingRepository.save(new Booking(1L, currentTime.minusHours(2), currentTime.minusHours(1), item1, booker, BookingStatus.APPROVED));
         booking2 = bookingRepository.save(new Booking(2L, currentTime.plusHours(3), currentTime.plusHours(4), item2, booker, BookingStatus.APPROVED));
 
-        Page<Booking> bookingPage = bookingRepository.findByItemOwnerIdAndEndBefore(owner.getId(), currentTime, page);
-        List<Booking> bookings = bookingPage.toList();
+        Slice<BookingDto> bookingPage = bookingRepository.findByItemOwnerIdAndEndBefore(owner.getId(), currentTime, page);
+        List<BookingDto> bookings = bookingPage.toList();
 
         assertEquals(1, bookings.size());
         assertEquals(booking1.getId(), bookings.get(0).getId());
@@ -145,8 +149,8 @@ class BookingRepositoryTest {
         booking1 = bookingRepository.save(new Booking(1L, currentTime.minusHours(1), currentTime.plusHours(1), item1, booker, BookingStatus.APPROVED));
         booking2 = bookingRepository.save(new Booking(2L, currentTime.plusHours(3), currentTime.plusHours(4), item2, booker, BookingStatus.APPROVED));
 
-        Page<Booking> bookingPage = bookingRepository.findByItemOwnerIdAndStartAfter(owner.getId(), currentTime, page);
-        List<Booking> bookings = bookingPage.toList();
+        Slice<BookingDto> bookingPage = bookingRepository.findByItemOwnerIdAndStartAfter(owner.getId(), currentTime, page);
+        List<BookingDto> bookings = bookingPage.toList();
 
         assertEquals(1, bookings.size());
         assertEquals(booking2.getId(), bookings.get(0).getId());
@@ -157,10 +161,10 @@ class BookingRepositoryTest {
         booking1 = bookingRepository.save(new Booking(1L, currentTime.minusHours(1), currentTime.plusHours(1), item1, booker, BookingStatus.WAITING));
         booking2 = bookingRepository.save(new Booking(2L, currentTime.plusHours(3), currentTime.plusHours(4), item2, booker, BookingStatus.REJECTED));
 
-        Page<Booking> waitigPage = bookingRepository.findByItemOwnerIdAndStatus(owner.getId(), BookingStatus.WAITING, page);
-        Page<Booking> rejectedPage = bookingRepository.findByItemOwnerIdAndStatus(owner.getId(), BookingStatus.REJECTED, page);
-        List<Booking> waitingBookings = waitigPage.toList();
-        List<Booking> rejectedBookings = rejectedPage.toList();
+        Slice<BookingDto> waitigPage = bookingRepository.findByItemOwnerIdAndStatus(owner.getId(), BookingStatus.WAITING, page);
+        Slice<BookingDto> rejectedPage = bookingRepository.findByItemOwnerIdAndStatus(owner.getId(), BookingStatus.REJECTED, page);
+        List<BookingDto> waitingBookings = waitigPage.toList();
+        List<BookingDto> rejectedBookings = rejectedPage.toList();
 
         assertEquals(1, waitingBookings.size());
         assertEquals(1, rejectedBookings.size());
@@ -173,8 +177,8 @@ class BookingRepositoryTest {
         booking1 = bookingRepository.save(new Booking(1L, currentTime.minusHours(1), currentTime.plusHours(1), item1, booker, BookingStatus.APPROVED));
         booking2 = bookingRepository.save(new Booking(2L, currentTime.plusHours(3), currentTime.plusHours(4), item2, booker, BookingStatus.APPROVED));
 
-        Page<Booking> bookingPage = bookingRepository.findByItemOwnerId(owner.getId(), page);
-        List<Booking> bookings = bookingPage.toList();
+        Slice<BookingDto> bookingPage = bookingRepository.findByItemOwnerId(owner.getId(), page);
+        List<BookingDto> bookings = bookingPage.toList();
 
         assertEquals(2, bookings.size());
         assertEquals(booking1.getId(), bookings.get(0).getId());
@@ -214,4 +218,63 @@ class BookingRepositoryTest {
         assertEquals(booking3, booking);
         assertEquals(booking3.getId(), booking.getId());
     }
-}
\ No newline at end of file
+
+    @Test
+    void findLastAndNextByItemIds() {
+        booking1 = bookingRepository.save(new Booking(null, currentTime.minusHours(5), currentTime.minusHours(4), item1, booker, BookingStatus.APPROVED));
+        booking2 = bookingRepository.save(new Booking(null, currentTime.minusHours(3), currentTime.minusHours(2), item1, booker, BookingStatus.REJECTED));
+        Booking booking3 = bookingRepository.save(new Booking(null, currentTime.plusHours(3), currentTime.plusHours(4), item1, booker, BookingStatus.APPROVED));
+        Booking booking4 = bookingRepository.save(new Booking(null, currentTime.plusHours(1), currentTime.plusHours(2), item1, booker, BookingStatus.WAITING));
+        Booking booking5 = bookingRepository.save(new Booking(null, currentTime.plusHours(5), currentTime.plusHours(6), item2, booker, BookingStatus.APPROVED));
+
+        List<Booking> bookings = bookingRepository.findLastAndNextByItemIds(List.of(item1.getId(), item2.getId()), currentTime);
+
+        assertEquals(3, bookings.size());
+        assertTrue(bookings.stream().anyMatch(booking -> booking.getId().equals(booking2.getId())));
+        assertTrue(bookings.stream().anyMatch(booking -> booking.getId().equals(booking3.getId())));
+        assertTrue(bookings.stream().anyMatch(booking -> booking.getId().equals(booking5.getId())));
+        assertFalse(bookings.stream().anyMatch(booking -> booking.getId().equals(booking4.getId())));
+    }
+
+    @Test
+    void findByBookerIdAfterCursor() {
+        booking1 = bookingRepository.save(new Booking(null, currentTime.plusHours(1), currentTime.plusHours(2), item1, booker, BookingStatus.APPROVED));
+        booking2 = bookingRepository.save(new Booking(null, currentTime.plusHours(1), currentTime.plusHours(3), item2, booker, BookingStatus.WAITING));
+        Booking booking3 = bookingRepository.save(new Booking(null, currentTime.minusHours(2), currentTime.minusHours(1), item1, booker, BookingStatus.REJECTED));
+
+        Slice<BookingDto> firstSlice = bookingRepository.findByBookerIdAfterCursor(booker.getId(), BookingState.ALL, null, currentTime, 2);
+        BookingDto last = firstSlice.getContent().get(1);
+        Slice<BookingDto> secondSlice = bookingRepository.findByBookerIdAfterCursor(booker.getId(), BookingState.ALL,
+                new BookingCursor(last.getStart(), last.getId()), currentTime, 2);
+
+        assertTrue(firstSlice.hasNext());
+        assertEquals(List.of(booking2.getId(), booking1.getId()), firstSlice.map(BookingDto::getId).getContent());
+        assertFalse(secondSlice.hasNext());
+        assertEquals(List.of(booking3.getId()), secondSlice.map(BookingDto::getId).getContent());
+    }
+
+    @Test
+    void findByItemOwnerIdAfterCursor() {
+        booking1 = bookingRepository.save(new Booking(null, currentTime.minusHours(1), currentTime.plusHours(1), item1, booker, BookingStatus.APPROVED));
+        booking2 = bookingRepository.save(new Booking(null, currentTime.minusHours(4), currentTime.minusHours(3), item2, booker, BookingStatus.REJECTED));
+        Booking booking3 = bookingRepository.save(new Booking(null, currentTime.plusHours(3), currentTime.plusHours(4), item1, booker, BookingStatus.WAITING));
+
+        assertEquals(List.of(booking1.getId()), findOwnerBookingIds(BookingState.CURRENT));
+        assertEquals(List.of(booking2.getId()), findOwnerBookingIds(BookingState.PAST));
+        assertEquals(List.of(booking3.getId()), findOwnerBookingIds(BookingState.FUTURE));
+        assertEquals(List.of(booking3.getId()), findOwnerBookingIds(BookingState.WAITING));
+        assertEquals(List.of(booking2.getId()), findOwnerBookingIds(BookingState.REJECTED));
+        assertEquals(List.of(booking3.getId(), booking1.getId(), booking2.getId()), findOwnerBookingIds(BookingState.ALL));
+        assertTrue(findOwnerBookingIds(BookingState.ALL, booker.getId()).isEmpty());
+    }
+
+    private List<Long> findOwnerBookingIds(BookingState state) {
+        return findOwnerBookingIds(state, owner.getId());
+    }
+
+    private List<Long> findOwnerBookingIds(BookingState state, Long ownerId) {
+        return bookingRepository.findByItemOwnerIdAfterCursor(ownerId, state, null, currentTime, 10)
+                .map(BookingDto::getId)
+                .getContent();
+    }
+}
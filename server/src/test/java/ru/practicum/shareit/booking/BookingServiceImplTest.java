@@ -1,25 +1,32 @@
 package ru.practicum.shareit.booking;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.InputBookingDto;
+import ru.practicum.shareit.exeption.ConflictException;
 import ru.practicum.shareit.exeption.NotFoundException;
 import ru.practicum.shareit.exeption.UnsupportedStatusException;
 import ru.practicum.shareit.exeption.ValidationException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.pointer.ItemBookingPointers;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceIndex;
 import ru.practicum.shareit.user.UserRepository;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -38,6 +45,16 @@ class BookingServiceImplTest {
     private ItemRepository itemRepository;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private UserExistenceIndex userExistenceIndex;
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+    @Mock
+    private ItemBookingLocks itemBookingLocks;
+    @Mock
+    private ItemBookingPointers itemBookingPointers;
+    @Mock
+    private BookingTimer bookingTimer;
     @InjectMocks
     private BookingServiceImpl bookingService;
     private final LocalDateTime created = LocalDateTime.now();
@@ -58,13 +75,81 @@ class BookingServiceImplTest {
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
 
         Booking expectedBooking = toBooking(inputBookingDto, booker, item);
-        when(bookingRepository.save(expectedBooking)).thenReturn(expectedBooking);
+        when(bookingRepository.saveAndFlush(expectedBooking)).thenReturn(expectedBooking);
 
         BookingDto actualBooking = bookingService.create(booker.getId(), inputBookingDto);
         actualBooking.setId(1L);
 
         assertEquals(bookingDto, actualBooking);
-        verify(bookingRepository, times(1)).save(expectedBooking);
+        verify(bookingRepository, times(1)).saveAndFlush(expectedBooking);
+        verify(bookingIntervalIndex, times(1)).add(expectedBooking);
+        verify(itemBookingLocks, times(1)).lock(item.getId());
+        verify(itemBookingPointers, times(1)).refresh(item.getId());
+        verify(bookingTimer, times(1)).schedule(any(Booking.class), eq(BookingStatus.WAITING));
+    }
+
+    @Test
+    void shouldReturnValidationExceptionWhenBookingOverlapsIndexedBooking() {
+        when(userRepository.findById(booker.getId())).thenReturn(Optional.of(booker));
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(bookingIntervalIndex.overlaps(item.getId(), start, end)).thenReturn(true);
+        when(bookingRepository.existsOverlappingForItem(item.getId(), BookingIntervalIndex.ACTIVE_STATUSES, start, end)).thenReturn(true);
+
+        ValidationException exception = assertThrows(ValidationException.class, () -> bookingService.create(booker.getId(), inputBookingDto));
+
+        assertEquals("Вещь с ID=1 уже забронирована на указанное время", exception.getMessage());
+        verify(bookingRepository, never()).saveAndFlush(any(Booking.class));
+        verify(bookingIntervalIndex, never()).invalidate(item.getId());
+    }
+
+    @Test
+    void shouldCreateBookingAndDropStaleIndexEntryWhenDatabaseFindsNoOverlap() {
+        when(userRepository.findById(booker.getId())).thenReturn(Optional.of(booker));
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(bookingIntervalIndex.overlaps(item.getId(), start, end)).thenReturn(true);
+
+        bookingService.create(booker.getId(), inputBookingDto);
+
+        verify(bookingIntervalIndex).invalidate(item.getId());
+        verify(bookingRepository).saveAndFlush(any(Booking.class));
+    }
+
+    @Test
+    void shouldReturnValidationExceptionWhenStoredBookingOverlapsMissedByIndex() {
+        when(userRepository.findById(booker.getId())).thenReturn(Optional.of(booker));
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(bookingRepository.existsOverlappingForItem(item.getId(), BookingIntervalIndex.ACTIVE_STATUSES, start, end)).thenReturn(true);
+
+        ValidationException exception = assertThrows(ValidationException.class, () -> bookingService.create(booker.getId(), inputBookingDto));
+
+        assertEquals("Вещь с ID=1 уже забронирована на указанное время", exception.getMessage());
+        InOrder inOrder = inOrder(itemBookingLocks, bookingIntervalIndex, bookingRepository);
+        inOrder.verify(itemBookingLocks).lock(item.getId());
+        inOrder.verify(bookingIntervalIndex).overlaps(item.getId(), start, end);
+        inOrder.verify(bookingRepository).existsOverlappingForItem(item.getId(), BookingIntervalIndex.ACTIVE_STATUSES, start, end);
+        verify(bookingRepository, never()).saveAndFlush(any(Booking.class));
+    }
+
+    @Test
+    void shouldReturnValidationExceptionWhenBookingViolatesOverlapConstraint() {
+        when(userRepository.findById(booker.getId())).thenReturn(Optional.of(booker));
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenThrow(new DataIntegrityViolationException("overlap",
+                new ConstraintViolationException("overlap", new SQLException("overlap", "23P01"), "bookings_item_period_excl")));
+
+        assertThrows(ValidationException.class, () -> bookingService.create(booker.getId(), inputBookingDto));
+        verify(bookingIntervalIndex, never()).add(any(Booking.class));
+    }
+
+    @Test
+    void shouldRethrowOtherIntegrityViolations() {
+        when(userRepository.findById(booker.getId())).thenReturn(Optional.of(booker));
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenThrow(new DataIntegrityViolationException("fk",
+                new ConstraintViolationException("fk", new SQLException("fk", "23503"), "bookings_booker_id_fkey")));
+
+        assertThrows(DataIntegrityViolationException.class, () -> bookingService.create(booker.getId(), inputBookingDto));
+        verify(bookingIntervalIndex, never()).add(any(Booking.class));
     }
 
     @Test
@@ -108,30 +193,65 @@ class BookingServiceImplTest {
 
     @Test
     public void shouldUpdateBookingStatusAPPROVED() {
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        when(userExistenceIndex.exists(owner.getId())).thenReturn(true);
         when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(bookingRepository.updateStatus(booking.getId(), booking.getVersion(), BookingStatus.WAITING, BookingStatus.APPROVED)).thenReturn(1);
 
         BookingDto updateBooking = bookingService.update(owner.getId(), true, booking.getId());
 
         assertEquals(BookingStatus.APPROVED, updateBooking.getStatus());
+        verify(itemBookingLocks, times(1)).lock(item.getId());
+        verify(itemBookingPointers, times(1)).refresh(item.getId());
+        verify(bookingTimer, times(1)).schedule(booking, BookingStatus.APPROVED);
+    }
+
+    @Test
+    public void shouldReturnValidationExceptionWhenApprovedBookingOverlaps() {
+        when(userExistenceIndex.exists(owner.getId())).thenReturn(true);
+        when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(bookingRepository.existsOverlapping(item.getId(), booking.getId(), BookingIntervalIndex.ACTIVE_STATUSES, start, end)).thenReturn(true);
+
+        assertThrows(ValidationException.class, () -> bookingService.update(owner.getId(), true, booking.getId()));
+        assertEquals(BookingStatus.WAITING, booking.getStatus());
+        InOrder inOrder = inOrder(itemBookingLocks, bookingRepository);
+        inOrder.verify(itemBookingLocks).lock(item.getId());
+        inOrder.verify(bookingRepository).existsOverlapping(item.getId(), booking.getId(), BookingIntervalIndex.ACTIVE_STATUSES, start, end);
     }
 
     @Test
     public void shouldUpdateBookingStatusREJECTED() {
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        when(userExistenceIndex.exists(owner.getId())).thenReturn(true);
         when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(bookingRepository.updateStatus(booking.getId(), booking.getVersion(), BookingStatus.WAITING, BookingStatus.REJECTED)).thenReturn(1);
 
         BookingDto updateBooking = bookingService.update(owner.getId(), false, booking.getId());
 
         assertEquals(BookingStatus.REJECTED, updateBooking.getStatus());
+        verify(itemBookingLocks, never()).lock(item.getId());
+        verify(itemBookingPointers, times(1)).refresh(item.getId());
+        verify(bookingTimer, times(1)).cancel(booking);
+    }
+
+    @Test
+    public void shouldReturnConflictExceptionWhenBookingStatusChangedConcurrently() {
+        when(userExistenceIndex.exists(owner.getId())).thenReturn(true);
+        when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(bookingRepository.updateStatus(booking.getId(), booking.getVersion(), BookingStatus.WAITING, BookingStatus.REJECTED)).thenReturn(0);
+
+        ConflictException exception = assertThrows(ConflictException.class, () -> bookingService.update(owner.getId(), false, booking.getId()));
+        assertEquals("Статус бронирования с ID=" + booking.getId() + " уже изменён другим запросом", exception.getMessage());
+        verify(bookingIntervalIndex, never()).remove(booking);
+        verify(itemBookingPointers, never()).refresh(item.getId());
     }
 
     @Test
     public void shouldReturnValidationExceptionWhenBookingStatusIsNotWAITING() {
         booking.setStatus(BookingStatus.REJECTED);
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        when(userExistenceIndex.exists(owner.getId())).thenReturn(true);
         when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
 
@@ -141,7 +261,7 @@ class BookingServiceImplTest {
 
     @Test
     public void shouldReturnNotFoundExceptionWhenUserIsNotOwner() {
-        when(userRepository.findById(booker.getId())).thenReturn(Optional.of(booker));
+        when(userExistenceIndex.exists(booker.getId())).thenReturn(true);
         when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
 
@@ -151,7 +271,7 @@ class BookingServiceImplTest {
 
     @Test
     void shouldReturnBookingById() {
-        when(userRepository.findById(booker.getId())).thenReturn(Optional.of(booker));
+        when(userExistenceIndex.exists(booker.getId())).thenReturn(true);
         when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
 
@@ -162,7 +282,7 @@ class BookingServiceImplTest {
 
     @Test
     void shouldReturnNotFoundExceptionWhenUserIdIsNotEqualsOwnerOrBooker() {
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(userExistenceIndex.exists(user.getId())).thenReturn(true);
         when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
 
@@ -177,9 +297,9 @@ class BookingServiceImplTest {
         Sort sort = Sort.by(Sort.Direction.DESC, "start");
         PageRequest page = PageRequest.of(from, size, sort);
         List<Booking> bookings = List.of(booking);
-        Page<Booking> bookingPage = new PageImpl<>(bookings, page, bookings.size());
+        Slice<BookingDto> bookingPage = new SliceImpl<>(List.of(bookingDto), page, false);
 
-        when(userRepository.findById(booker.getId())).thenReturn(Optional.of(booker));
+        when(userExistenceIndex.exists(booker.getId())).thenReturn(true);
         when(bookingRepository.findByBookerId(booker.getId(), page)).thenReturn(bookingPage);
 
         List<BookingDto> bookingDtos = bookings.stream()
@@ -197,9 +317,9 @@ class BookingServiceImplTest {
         Sort sort = Sort.by(Sort.Direction.DESC, "start");
         PageRequest page = PageRequest.of(from, size, sort);
         List<Booking> bookings = List.of(booking);
-        Page<Booking> bookingPage = new PageImpl<>(bookings, page, bookings.size());
+        Slice<BookingDto> bookingPage = new SliceImpl<>(List.of(bookingDto), page, false);
 
-        when(userRepository.findById(eq(booker.getId()))).thenReturn(Optional.of(booker));
+        when(userExistenceIndex.exists(eq(booker.getId()))).thenReturn(true);
         when(bookingRepository.findByBookerIdAndStartIsBeforeAndEndIsAfter(
                 eq(booker.getId()), any(LocalDateTime.class), any(LocalDateTime.class), eq(page))
         ).thenReturn(bookingPage);
@@ -219,9 +339,9 @@ class BookingServiceImplTest {
         Sort sort = Sort.by(Sort.Direction.DESC, "start");
         PageRequest page = PageRequest.of(from, size, sort);
         List<Booking> bookings = List.of(booking);
-        Page<Booking> bookingPage = new PageImpl<>(bookings, page, bookings.size());
+        Slice<BookingDto> bookingPage = new SliceImpl<>(List.of(bookingDto), page, false);
 
-        when(userRepository.findById(eq(booker.getId()))).thenReturn(Optional.of(booker));
+        when(userExistenceIndex.exists(eq(booker.getId()))).thenReturn(true);
         when(bookingRepository.findByBookerIdAndEndBefore(
                 eq(booker.getId()), any(LocalDateTime.class), eq(page))
         ).thenReturn(bookingPage);
@@ -241,9 +361,9 @@ class BookingServiceImplTest {
         Sort sort = Sort.by(Sort.Direction.DESC, "start");
         PageRequest page = PageRequest.of(from, size, sort);
         List<Booking> bookings = List.of(booking);
-        Page<Booking> bookingPage = new PageImpl<>(bookings, page, bookings.size());
+        Slice<BookingDto> bookingPage = new SliceImpl<>(List.of(bookingDto), page, false);
 
-        when(userRepository.findById(eq(booker.getId()))).thenReturn(Optional.of(booker));
+        when(userExistenceIndex.exists(eq(booker.getId()))).thenReturn(true);
         when(bookingRepository.findByBookerIdAndStartAfter(
                 eq(booker.getId()), any(LocalDateTime.class), eq(page))
         ).thenReturn(bookingPage);
@@ -263,9 +383,9 @@ class BookingServiceImplTest {
         Sort sort = Sort.by(Sort.Direction.DESC, "start");
         PageRequest page = PageRequest.of(from, size, sort);
         List<Booking> bookings = List.of(booking);
-        Page<Booking> bookingPage = new PageImpl<>(bookings, page, bookings.size());
+        Slice<BookingDto> bookingPage = new SliceImpl<>(List.of(bookingDto), page, false);
 
-        when(userRepository.findById(eq(booker.getId()))).thenReturn(Optional.of(booker));
+        when(userExistenceIndex.exists(eq(booker.getId()))).thenReturn(true);
         when(bookingRepository.findByBookerIdAndStatus(booker.getId(), BookingStatus.WAITING, page)).thenReturn(bookingPage);
 
         List<BookingDto> bookingDtos = bookings.stream()
@@ -283,9 +403,9 @@ class BookingServiceImplTest {
         Sort sort = Sort.by(Sort.Direction.DESC, "start");
         PageRequest page = PageRequest.of(from, size, sort);
         List<Booking> bookings = List.of(booking);
-        Page<Booking> bookingPage = new PageImpl<>(bookings, page, bookings.size());
+        Slice<BookingDto> bookingPage = new SliceImpl<>(List.of(bookingDto), page, false);
 
-        when(userRepository.findById(eq(booker.getId()))).thenReturn(Optional.of(booker));
+        when(userExistenceIndex.exists(eq(booker.getId()))).thenReturn(true);
         when(bookingRepository.findByBookerIdAndStatus(booker.getId(), BookingStatus.REJECTED, page)).thenReturn(bookingPage);
 
         List<BookingDto> bookingDtos = bookings.stream()
@@ -311,9 +431,9 @@ class BookingServiceImplTest {
         Sort sort = Sort.by(Sort.Direction.DESC, "start");
         PageRequest page = PageRequest.of(from, size, sort);
         List<Booking> bookings = List.of(booking);
-        Page<Booking> bookingPage = new PageImpl<>(bookings, page, bookings.size());
+        Slice<BookingDto> bookingPage = new SliceImpl<>(List.of(bookingDto), page, false);
 
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        when(userExistenceIndex.exists(owner.getId())).thenReturn(true);
         when(bookingRepository.findByItemOwnerId(owner.getId(), page)).thenReturn(bookingPage);
 
         List<BookingDto> bookingDtos = bookings.stream()
@@ -331,9 +451,9 @@ class BookingServiceImplTest {
         Sort sort = Sort.by(Sort.Direction.DESC, "start");
         PageRequest page = PageRequest.of(from, size, sort);
         List<Booking> bookings = List.of(booking);
-        Page<Booking> bookingPage = new PageImpl<>(bookings, page, bookings.size());
+        Slice<BookingDto> bookingPage = new SliceImpl<>(List.of(bookingDto), page, false);
 
-        when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.of(owner));
+        when(userExistenceIndex.exists(eq(owner.getId()))).thenReturn(true);
         when(bookingRepository.findByItemOwnerIdAndStartIsBeforeAndEndAfter(
                 eq(owner.getId()), any(LocalDateTime.class), any(LocalDateTime.class), eq(page))
         ).thenReturn(bookingPage);
@@ -353,9 +473,9 @@ class BookingServiceImplTest {
         Sort sort = Sort.by(Sort.Direction.DESC, "start");
         PageRequest page = PageRequest.of(from, size, sort);
         List<Booking> bookings = List.of(booking);
-        Page<Booking> bookingPage = new PageImpl<>(bookings, page, bookings.size());
+        Slice<BookingDto> bookingPage = new SliceImpl<>(List.of(bookingDto), page, false);
 
-        when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.of(owner));
+        when(userExistenceIndex.exists(eq(owner.getId()))).thenReturn(true);
         when(bookingRepository.findByItemOwnerIdAndEndBefore(
                 eq(owner.getId()), any(LocalDateTime.class), eq(page))
         ).thenReturn(bookingPage);
@@ -375,9 +495,9 @@ class BookingServiceImplTest {
         Sort sort = Sort.by(Sort.Direction.DESC, "start");
         PageRequest page = PageRequest.of(from, size, sort);
         List<Booking> bookings = List.of(booking);
-        Page<Booking> bookingPage = new PageImpl<>(bookings, page, bookings.size());
+        Slice<BookingDto> bookingPage = new SliceImpl<>(List.of(bookingDto), page, false);
 
-        when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.of(owner));
+        when(userExistenceIndex.exists(eq(owner.getId()))).thenReturn(true);
         when(bookingRepository.findByItemOwnerIdAndStartAfter(
                 eq(owner.getId()), any(LocalDateTime.class), eq(page))
         ).thenReturn(bookingPage);
@@ -397,9 +517,9 @@ class BookingServiceImplTest {
         Sort sort = Sort.by(Sort.Direction.DESC, "start");
         PageRequest page = PageRequest.of(from, size, sort);
         List<Booking> bookings = List.of(booking);
-        Page<Booking> bookingPage = new PageImpl<>(bookings, page, bookings.size());
+        Slice<BookingDto> bookingPage = new SliceImpl<>(List.of(bookingDto), page, false);
 
-        when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.of(owner));
+        when(userExistenceIndex.exists(eq(owner.getId()))).thenReturn(true);
         when(bookingRepository.findByItemOwnerIdAndStatus(owner.getId(), BookingStatus.WAITING, page)).thenReturn(bookingPage);
 
         List<BookingDto> bookingDtos = bookings.stream()
@@ -417,9 +537,9 @@ class BookingServiceImplTest {
         Sort sort = Sort.by(Sort.Direction.DESC, "start");
         PageRequest page = PageRequest.of(from, size, sort);
         List<Booking> bookings = List.of(booking);
-        Page<Booking> bookingPage = new PageImpl<>(bookings, page, bookings.size());
+        Slice<BookingDto> bookingPage = new SliceImpl<>(List.of(bookingDto), page, false);
 
-        when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.of(owner));
+        when(userExistenceIndex.exists(eq(owner.getId()))).thenReturn(true);
         when(bookingRepository.findByItemOwnerIdAndStatus(owner.getId(), BookingStatus.REJECTED, page)).thenReturn(bookingPage);
 
         List<BookingDto> bookingDtos = bookings.stream()
@@ -429,4 +549,41 @@ class BookingServiceImplTest {
 
         assertEquals(bookingDtos, actualBookingsList);
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldReturnUserBookingsByCursor() {
+        BookingCursor cursor = new BookingCursor(end, 5L);
+        Slice<BookingDto> bookingSlice = new SliceImpl<>(List.of(bookingDto), PageRequest.of(0, 10), false);
+
+        when(userExistenceIndex.exists(booker.getId())).thenReturn(true);
+        when(bookingRepository.findByBookerIdAfterCursor(eq(booker.getId()), eq(BookingState.PAST), eq(cursor), any(LocalDateTime.class), eq(10)))
+                .thenReturn(bookingSlice);
+
+        Slice<BookingDto> actualBookings = bookingService.getAllUserBookings(booker.getId(), "PAST", cursor.encode(), 10);
+
+        assertEquals(List.of(bookingDto), actualBookings.getContent());
+        assertFalse(actualBookings.hasNext());
+    }
+
+    @Test
+    void shouldReturnOwnerBookingsFromFirstCursorPage() {
+        Slice<BookingDto> bookingSlice = new SliceImpl<>(List.of(bookingDto), PageRequest.of(0, 1), true);
+
+        when(userExistenceIndex.exists(owner.getId())).thenReturn(true);
+        when(bookingRepository.findByItemOwnerIdAfterCursor(eq(owner.getId()), eq(BookingState.ALL), isNull(), any(LocalDateTime.class), eq(1)))
+                .thenReturn(bookingSlice);
+
+        Slice<BookingDto> actualBookings = bookingService.getOwnerBookings(owner.getId(), "ALL", "", 1);
+
+        assertEquals(List.of(bookingDto), actualBookings.getContent());
+        assertTrue(actualBookings.hasNext());
+    }
+
+    @Test
+    void shouldReturnValidationExceptionWhenCursorIsInvalid() {
+        when(userExistenceIndex.exists(booker.getId())).thenReturn(true);
+
+        assertThrows(ValidationException.class, () -> bookingService.getAllUserBookings(booker.getId(), "ALL", "not-a-cursor", 10));
+        verify(bookingRepository, never()).findByBookerIdAfterCursor(any(), any(), any(), any(), anyInt());
+    }
+}
@@ -0,0 +1,114 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BookingTimerTest {
+    private final User owner = new User(1L, "Owner", "owner@test.ru");
+    private final Item item = new Item(1L, "Дрель", "Аккумуляторная дрель", true, owner, null);
+    private BookingRepository bookingRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private SimpleMeterRegistry meterRegistry;
+    private BookingTimer bookingTimer;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        meterRegistry = new SimpleMeterRegistry();
+        bookingTimer = new BookingTimer(bookingRepository, eventPublisher, meterRegistry, false, 100, 16, 4, 2);
+    }
+
+    @Test
+    void shouldPublishStartAndEndOfScheduledBooking() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking booking = new Booking(1L, now.plusSeconds(10), now.plusMinutes(10), item, owner, BookingStatus.WAITING);
+
+        bookingTimer.schedule(booking, booking.getStatus());
+        assertEquals(2.0, meterRegistry.get("shareit.booking.timer.pending").gauge().value());
+
+        bookingTimer.advance(now.plusSeconds(5));
+        verifyNoInteractions(eventPublisher);
+
+        bookingTimer.advance(now.plusSeconds(11));
+        verify(eventPublisher).publishEvent(new BookingTransitionEvent(1L, 1L, BookingTransitionEvent.Type.STARTED, BookingStatus.WAITING));
+
+        bookingTimer.advance(now.plusMinutes(11));
+        verify(eventPublisher).publishEvent(new BookingTransitionEvent(1L, 1L, BookingTransitionEvent.Type.ENDED, BookingStatus.WAITING));
+        assertEquals(0, bookingTimer.size());
+    }
+
+    @Test
+    void shouldPublishApprovedStatusAfterApprovalReschedulesBooking() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking booking = new Booking(1L, now.plusSeconds(10), now.plusMinutes(10), item, owner, BookingStatus.WAITING);
+        ArgumentCaptor<BookingTransitionEvent> events = ArgumentCaptor.forClass(BookingTransitionEvent.class);
+
+        bookingTimer.schedule(booking, BookingStatus.WAITING);
+        bookingTimer.schedule(booking, BookingStatus.APPROVED);
+        assertEquals(2, bookingTimer.size());
+        bookingTimer.advance(now.plusMinutes(11));
+
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertTrue(events.getAllValues().stream().allMatch(event -> event.getStatus() == BookingStatus.APPROVED));
+    }
+
+    @Test
+    void shouldNotPublishCancelledBooking() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking booking = new Booking(1L, now.plusSeconds(10), now.plusMinutes(10), item, owner, BookingStatus.WAITING);
+
+        bookingTimer.schedule(booking, booking.getStatus());
+        bookingTimer.cancel(booking);
+        bookingTimer.advance(now.plusMinutes(11));
+
+        verifyNoInteractions(eventPublisher);
+        assertEquals(0, bookingTimer.size());
+    }
+
+    @Test
+    void shouldLoadUpcomingBookingsInBatches() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking current = new Booking(1L, now.minusHours(1), now.plusHours(1), item, owner, BookingStatus.APPROVED);
+        Booking future = new Booking(2L, now.plusHours(1), now.plusHours(2), item, owner, BookingStatus.APPROVED);
+        Booking next = new Booking(3L, now.plusHours(3), now.plusHours(4), item, owner, BookingStatus.APPROVED);
+        when(bookingRepository.findUpcomingAfter(eq(0L), eq(List.of(BookingStatus.APPROVED)), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(current, future));
+        when(bookingRepository.findUpcomingAfter(eq(2L), eq(List.of(BookingStatus.APPROVED)), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(next));
+
+        bookingTimer.load();
+
+        assertEquals(5, bookingTimer.size());
+        verify(bookingRepository, times(2)).findUpcomingAfter(anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void shouldKeepPublishingWhenListenerFails() {
+        LocalDateTime now = LocalDateTime.now();
+        doThrow(new IllegalStateException("Ошибка")).when(eventPublisher)
+                .publishEvent(new BookingTransitionEvent(1L, 1L, BookingTransitionEvent.Type.STARTED, BookingStatus.WAITING));
+        bookingTimer.schedule(new Booking(1L, now.plusSeconds(1), now.plusHours(1), item, owner, BookingStatus.APPROVED), BookingStatus.APPROVED);
+        bookingTimer.schedule(new Booking(2L, now.plusSeconds(1), now.plusHours(1), item, owner, BookingStatus.APPROVED), BookingStatus.APPROVED);
+
+        bookingTimer.advance(now.plusSeconds(2));
+
+        verify(eventPublisher).publishEvent(new BookingTransitionEvent(2L, 1L, BookingTransitionEvent.Type.STARTED, BookingStatus.WAITING));
+    }
+}
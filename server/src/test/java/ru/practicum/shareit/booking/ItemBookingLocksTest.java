@@ -0,0 +1,128 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import ru.practicum.shareit.exeption.ConflictException;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ItemBookingLocksTest {
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private SimpleMeterRegistry meterRegistry;
+    private ItemBookingLocks locks;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenThrow(new SQLException("H2"));
+        meterRegistry = new SimpleMeterRegistry();
+        locks = new ItemBookingLocks(dataSource, meterRegistry, 256, 200, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldSerializeBookingsOfTheSameItem() throws Exception {
+        CountDownLatch firstLocked = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> inTransaction(() -> {
+            locks.lock(1L);
+            firstLocked.countDown();
+            await(releaseFirst);
+        }), executor);
+        assertTrue(firstLocked.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> inTransaction(() -> locks.lock(1L)), executor);
+        Thread.sleep(50);
+        assertFalse(second.isDone());
+
+        releaseFirst.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+
+        assertEquals(2.0, meterRegistry.get("shareit.booking.lock.acquired").counter().count());
+        assertEquals(1.0, meterRegistry.get("shareit.booking.lock.contended").counter().count());
+        assertEquals(Map.of(1L, 1L), locks.getHotItems(10));
+    }
+
+    @Test
+    void shouldNotBlockBookingsOfDifferentItems() throws Exception {
+        CountDownLatch firstLocked = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> inTransaction(() -> {
+            locks.lock(1L);
+            firstLocked.countDown();
+            await(releaseFirst);
+        }), executor);
+        assertTrue(firstLocked.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture.runAsync(() -> inTransaction(() -> locks.lock(2L)), executor).get(5, TimeUnit.SECONDS);
+        releaseFirst.countDown();
+        first.get(5, TimeUnit.SECONDS);
+
+        assertEquals(0.0, meterRegistry.get("shareit.booking.lock.contended").counter().count());
+        assertTrue(locks.getHotItems(10).isEmpty());
+    }
+
+    @Test
+    void shouldReturnConflictExceptionWhenLockIsNotReleasedInTime() throws Exception {
+        CountDownLatch firstLocked = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> inTransaction(() -> {
+            locks.lock(1L);
+            firstLocked.countDown();
+            await(releaseFirst);
+        }), executor);
+        assertTrue(firstLocked.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> inTransaction(() -> locks.lock(1L)), executor);
+        Exception exception = assertThrows(Exception.class, () -> second.get(5, TimeUnit.SECONDS));
+        assertTrue(exception.getCause() instanceof ConflictException);
+
+        releaseFirst.countDown();
+        first.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void shouldReturnIllegalStateExceptionOutsideTransaction() {
+        assertThrows(IllegalStateException.class, () -> locks.lock(1L));
+    }
+
+    private static void inTransaction(Runnable action) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            action.run();
+        } finally {
+            TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                    TransactionSynchronization.STATUS_COMMITTED);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+    @Test
+    void shouldFireTimeoutAtItsTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 4, 3, 0);
+        wheel.schedule("a", 25);
+
+        assertTrue(wheel.advance(20).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(30));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void shouldCascadeTimeoutsFromUpperLevels() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(1, 4, 3, 5);
+        wheel.schedule(1, 13);
+        wheel.schedule(2, 21);
+        wheel.schedule(3, 64);
+
+        assertTrue(wheel.advance(12).isEmpty());
+        assertEquals(List.of(1), wheel.advance(13));
+        assertTrue(wheel.advance(20).isEmpty());
+        assertEquals(List.of(2), wheel.advance(21));
+        assertTrue(wheel.advance(63).isEmpty());
+        assertEquals(List.of(3), wheel.advance(64));
+    }
+
+    @Test
+    void shouldKeepTimeoutsBeyondTheLastLevel() {
+        TimingWheel<String> wheel = new TimingWheel<>(1, 4, 2, 0);
+        wheel.schedule("far", 100);
+
+        assertTrue(wheel.advance(99).isEmpty());
+        assertEquals(List.of("far"), wheel.advance(100));
+    }
+
+    @Test
+    void shouldFireOverdueTimeoutOnNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 4, 3, 100);
+        wheel.schedule("late", 50);
+
+        assertEquals(List.of("late"), wheel.advance(110));
+    }
+
+    @Test
+    void shouldRescheduleAndCancelTimeouts() {
+        TimingWheel<String> wheel = new TimingWheel<>(1, 4, 3, 0);
+        wheel.schedule("moved", 5);
+        wheel.schedule("moved", 40);
+        wheel.schedule("cancelled", 7);
+
+        assertTrue(wheel.cancel("cancelled"));
+        assertFalse(wheel.cancel("cancelled"));
+        assertTrue(wheel.advance(39).isEmpty());
+        assertEquals(List.of("moved"), wheel.advance(40));
+    }
+
+    @Test
+    void shouldFireEveryTimeoutExactlyOnceInOrder() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(1, 8, 4, 0);
+        Random random = new Random(42);
+        int[] expirations = new int[2000];
+        for (int i = 0; i < expirations.length; i++) {
+            expirations[i] = 1 + random.nextInt(5000);
+            wheel.schedule(i, expirations[i]);
+        }
+
+        List<Integer> fired = new ArrayList<>();
+        for (long now = 0; now <= 5000; now += 1 + random.nextInt(20)) {
+            for (Integer key : wheel.advance(now)) {
+                assertTrue(expirations[key] <= now);
+                assertTrue(expirations[key] > now - 21);
+                fired.add(key);
+            }
+        }
+        fired.addAll(wheel.advance(5000));
+
+        assertEquals(expirations.length, fired.size());
+        assertEquals(expirations.length, fired.stream().distinct().count());
+    }
+}
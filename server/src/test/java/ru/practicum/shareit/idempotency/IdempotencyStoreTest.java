@@ -0,0 +1,111 @@
+package ru.practicum.shareit.idempotency;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exeption.ConflictException;
+import ru.practicum.shareit.exeption.ValidationException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyStoreTest {
+    private final IdempotencyStore store = new IdempotencyStore(100, 60000, 200);
+
+    @Test
+    void shouldRunActionOnceForConcurrentRetries() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            CompletableFuture<String> original = CompletableFuture.supplyAsync(() -> store.execute("bookings", 1L, "key", "request", () -> {
+                calls.incrementAndGet();
+                started.countDown();
+                await(finish);
+                return "booking";
+            }), executor);
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            CompletableFuture<String> retry = CompletableFuture.supplyAsync(() -> store.execute("bookings", 1L, "key", "request", () -> {
+                calls.incrementAndGet();
+                return "duplicate";
+            }), executor);
+
+            finish.countDown();
+
+            assertEquals("booking", original.get(5, TimeUnit.SECONDS));
+            assertEquals("booking", retry.get(5, TimeUnit.SECONDS));
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldScopeKeysByUser() {
+        assertEquals("first", store.execute("items", 1L, "key", "request", () -> "first"));
+        assertEquals("second", store.execute("items", 2L, "key", "request", () -> "second"));
+    }
+
+    @Test
+    void shouldForgetKeyWhenActionFails() {
+        assertThrows(ValidationException.class, () -> store.execute("bookings", 1L, "key", "request", () -> {
+            throw new ValidationException("Ошибка");
+        }));
+
+        assertEquals("booking", store.execute("bookings", 1L, "key", "request", () -> "booking"));
+    }
+
+    @Test
+    void shouldForgetKeyWhenActionFailsWithError() {
+        assertThrows(AssertionError.class, () -> store.execute("bookings", 1L, "key", "request", () -> {
+            throw new AssertionError("Ошибка");
+        }));
+
+        assertEquals("booking", store.execute("bookings", 1L, "key", "request", () -> "booking"));
+    }
+
+    @Test
+    void shouldRejectRetryWhenOriginalRequestIsStillRunning() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CompletableFuture<String> original = CompletableFuture.supplyAsync(() -> store.execute("bookings", 1L, "key", "request", () -> {
+                started.countDown();
+                await(finish);
+                return "booking";
+            }), executor);
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            assertThrows(ConflictException.class, () -> store.execute("bookings", 1L, "key", "request", () -> "duplicate"));
+
+            finish.countDown();
+            assertEquals("booking", original.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldRunActionWithoutKey() {
+        AtomicInteger calls = new AtomicInteger();
+
+        store.execute("bookings", 1L, null, "request", calls::incrementAndGet);
+        store.execute("bookings", 1L, null, "request", calls::incrementAndGet);
+
+        assertEquals(2, calls.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
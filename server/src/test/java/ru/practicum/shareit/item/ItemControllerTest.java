@@ -6,10 +6,14 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.idempotency.IdempotencyStore;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.TimeIntervalDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
@@ -22,12 +26,15 @@ import java.util.List;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ItemController.class)
+@Import(IdempotencyStore.class)
 class ItemControllerTest {
     @Autowired
     private ObjectMapper mapper;
@@ -60,6 +67,26 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.available", is(itemDto.getAvailable())));
     }
 
+    @SneakyThrows
+    @Test
+    void createWithIdempotencyKeyReturnsOriginalItem() {
+        when(itemService.create(itemDto, 1L)).thenReturn(itemDto);
+
+        for (int i = 0; i < 2; i++) {
+            mvc.perform(post("/items")
+                            .content(mapper.writeValueAsString(itemDto))
+                            .characterEncoding(StandardCharsets.UTF_8)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .accept(MediaType.APPLICATION_JSON)
+                            .header(USER, 1)
+                            .header(IdempotencyStore.IDEMPOTENCY_KEY, "item-key"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id", is(itemDto.getId()), Long.class));
+        }
+
+        verify(itemService, times(1)).create(itemDto, 1L);
+    }
+
     @SneakyThrows
     @Test
     void update() {
@@ -139,6 +166,26 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$[0].available", is(itemDto.getAvailable())));
     }
 
+    @SneakyThrows
+    @Test
+    void getItemAvailability() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime end = start.plusDays(1);
+        ItemAvailabilityDto availability = new ItemAvailabilityDto(itemDto.getId(), start, end,
+                List.of(new TimeIntervalDto(start.plusHours(2), end)), List.of(new TimeIntervalDto(start, start.plusHours(2))));
+        when(itemService.getItemAvailability(itemDto.getId(), start, end)).thenReturn(availability);
+
+        mvc.perform(get("/items/{itemId}/availability", itemDto.getId())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .queryParam("start", "2030-01-01T10:00:00")
+                        .queryParam("end", "2030-01-02T10:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId", is(itemDto.getId()), Long.class))
+                .andExpect(jsonPath("$.occupied", hasSize(1)))
+                .andExpect(jsonPath("$.occupied[0].end", is("2030-01-01T12:00:00")))
+                .andExpect(jsonPath("$.free[0].start", is("2030-01-01T12:00:00")));
+    }
+
     @SneakyThrows
     @Test
     void createComment() {
@@ -5,8 +5,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
@@ -14,9 +18,12 @@ import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 class ItemRepositoryTest {
@@ -26,6 +33,8 @@ class ItemRepositoryTest {
     private UserRepository userRepository;
     @Autowired
     private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
     private User owner;
     private ItemRequest itemRequest;
     private Item item1;
@@ -50,8 +59,8 @@ class ItemRepositoryTest {
         int from = 0;
         int size = 10;
         PageRequest page = PageRequest.of(from, size);
-        Page<Item> items = itemRepository.findByOwner_Id(owner.getId(), page);
-        List<Item> itemList = items.toList();
+        Slice<ItemDto> items = itemRepository.findByOwner_Id(owner.getId(), page);
+        List<ItemDto> itemList = items.toList();
 
         assertEquals(2, itemList.size());
         assertEquals("Item", itemList.get(0).getName());
@@ -69,15 +78,68 @@ class ItemRepositoryTest {
         assertEquals("Name", itemList.get(1).getName());
     }
 
+    @Test
+    void findByRequest_IdInOrderById() {
+        User requestor = userRepository.save(new User(null, "Second requestor", "second@test.ru"));
+        ItemRequest secondRequest = itemRequestRepository.save(new ItemRequest(null, "other", requestor, LocalDateTime.now()));
+        item1.setRequest(secondRequest);
+        item2.setRequest(itemRequest);
+        Item item3 = itemRepository.save(new Item(null, "Third", "description", true, owner, itemRequest));
+
+        List<Item> itemList = itemRepository.findByRequest_IdInOrderById(List.of(itemRequest.getId(), secondRequest.getId()));
+
+        assertEquals(List.of(item1.getId(), item2.getId(), item3.getId()),
+                itemList.stream().map(Item::getId).collect(Collectors.toList()));
+    }
+
     @Test
     void findBySearchQuery() {
         int from = 0;
         int size = 10;
         PageRequest page = PageRequest.of(from, size);
-        Page<Item> items = itemRepository.findBySearchQuery("text", page);
-        List<Item> itemList = items.toList();
+        Slice<ItemDto> items = itemRepository.findBySearchQuery("text", page);
+        List<ItemDto> itemList = items.toList();
 
         assertEquals(1, itemList.size());
         assertEquals("Item", itemList.get(0).getName());
     }
-}
\ No newline at end of file
+
+    @Test
+    void findBySearchQueryRanksNameMatchesFirst() {
+        Item descriptionMatch = itemRepository.save(new Item(null, "Drill", "item for drilling", true, owner, null));
+        Item nameMatch = itemRepository.save(new Item(null, "Item drill", "cordless", true, owner, null));
+        PageRequest page = PageRequest.of(0, 10);
+
+        List<ItemDto> itemList = itemRepository.findBySearchQuery("item", page).toList();
+
+        assertEquals(List.of(item1.getId(), nameMatch.getId(), descriptionMatch.getId()),
+                itemList.stream().map(ItemDto::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void findAvailableBySearchQuery() {
+        User booker = userRepository.save(new User(null, "Booker", "booker@test.ru"));
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusDays(1);
+        bookingRepository.save(new Booking(null, start, start.plusDays(1), item1, booker, BookingStatus.APPROVED));
+        bookingRepository.save(new Booking(null, start, start.plusDays(1), item2, booker, BookingStatus.REJECTED));
+        PageRequest page = PageRequest.of(0, 10);
+
+        List<ItemDto> busyWindow = itemRepository.findAvailableBySearchQuery("e", start.plusHours(12), start.plusDays(2), page).toList();
+        List<ItemDto> freeWindow = itemRepository.findAvailableBySearchQuery("e", start.plusDays(1), start.plusDays(2), page).toList();
+
+        assertEquals(List.of(item2.getId()), busyWindow.stream().map(ItemDto::getId).collect(Collectors.toList()));
+        assertEquals(2, freeWindow.size());
+    }
+
+    @Test
+    void findDtosByIdIn() {
+        item2.setRequest(itemRequest);
+        itemRepository.flush();
+
+        List<ItemDto> itemList = itemRepository.findDtosByIdIn(List.of(item1.getId(), item2.getId()));
+
+        assertEquals(2, itemList.size());
+        assertTrue(itemList.contains(new ItemDto(item1.getId(), "Item", "text", true, null)));
+        assertTrue(itemList.contains(new ItemDto(item2.getId(), "Name", "description", true, itemRequest.getId())));
+    }
+}
@@ -1,31 +1,42 @@
 package ru.practicum.shareit.item;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingIntervalIndex;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.dto.BookingForItemDto;
 import ru.practicum.shareit.exeption.NotFoundException;
 import ru.practicum.shareit.exeption.ValidationException;
+import ru.practicum.shareit.item.cache.ItemDetailsCache;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.TimeIntervalDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.pointer.ItemBookingPointer;
+import ru.practicum.shareit.item.pointer.ItemBookingPointers;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceIndex;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -39,11 +50,19 @@ class ItemServiceImplTest {
     @Mock
     private UserRepository userRepository;
     @Mock
+    private UserExistenceIndex userExistenceIndex;
+    @Mock
     private BookingRepository bookingRepository;
     @Mock
     private CommentRepository commentRepository;
     @Mock
     private ItemRequestRepository itemRequestRepository;
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+    @Mock
+    private ItemBookingPointers itemBookingPointers;
+    @Spy
+    private ItemDetailsCache itemDetailsCache = new ItemDetailsCache(1000, new SimpleMeterRegistry());
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -82,6 +101,7 @@ class ItemServiceImplTest {
         ItemDto actualItem = itemService.create(itemDto, owner.getId());
         assertEquals(itemDto, actualItem);
         verify(itemRepository, times(1)).save(item);
+        verify(itemBookingPointers, times(1)).create(item.getId());
     }
 
     @Test
@@ -106,7 +126,7 @@ class ItemServiceImplTest {
         newItem.setDescription("newText");
         newItem.setAvailable(false);
         ItemDto newItemDto = ItemMapper.toItemDto(newItem, comments);
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        when(userExistenceIndex.exists(owner.getId())).thenReturn(true);
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
         when(commentRepository.findByItemId(item.getId())).thenReturn(comments);
         when(itemRepository.save(item)).thenReturn(item);
@@ -120,7 +140,7 @@ class ItemServiceImplTest {
 
     @Test
     public void shouldReturnNotFoundExceptionWhenUserIsNotItemOwner() {
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(userExistenceIndex.exists(user.getId())).thenReturn(true);
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
 
         assertThrows(NotFoundException.class, () -> itemService.update(user.getId(), itemDto, item.getId()));
@@ -138,21 +158,85 @@ class ItemServiceImplTest {
         assertEquals(itemDtoWithBookings, actualItem);
     }
 
+    @Test
+    public void shouldReturnCachedItemByIdWithoutOwnerBookings() {
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(commentRepository.findByItemId(item.getId())).thenReturn(comments);
+        when(bookingRepository.findFirstByItem_IdAndStartBeforeOrderByEndDesc(eq(item.getId()), any(LocalDateTime.class))).thenReturn(booking);
+        when(bookingRepository.findFirstByItem_IdAndStartAfterAndStatusOrderByStartAsc(eq(item.getId()), any(LocalDateTime.class), eq(BookingStatus.APPROVED))).thenReturn(bookingNext);
+
+        itemService.getItemById(owner.getId(), item.getId());
+        ItemDto actualItem = itemService.getItemById(user.getId(), item.getId());
+
+        assertEquals(itemDto, actualItem);
+        verify(itemRepository, times(1)).findById(item.getId());
+        verify(commentRepository, times(1)).findByItemId(item.getId());
+    }
+
+    @Test
+    public void shouldReloadItemByIdAfterUpdate() {
+        when(userExistenceIndex.exists(owner.getId())).thenReturn(true);
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(commentRepository.findByItemId(item.getId())).thenReturn(comments);
+
+        itemService.getItemById(user.getId(), item.getId());
+        itemService.update(owner.getId(), new ItemDto(null, "New Name", null, null, null), item.getId());
+        ItemDto actualItem = itemService.getItemById(user.getId(), item.getId());
+
+        assertEquals("New Name", actualItem.getName());
+        verify(itemDetailsCache, times(1)).evict(item.getId());
+    }
+
     @Test
     public void shouldReturnItemByOwner() {
         int from = 0;
         int size = 10;
         PageRequest page = PageRequest.of(from, size);
-        List<Item> items = List.of(item);
-        Page<Item> itemPage = new PageImpl<>(items, page, items.size());
+        Slice<ItemDto> itemPage = new SliceImpl<>(List.of(toItemProjection(item)), page, false);
+        Booking lastBooking = new Booking(1L, created.minusHours(2), created.minusHours(1), item, user, BookingStatus.WAITING);
+        Booking nextBooking = new Booking(2L, created.plusHours(1), created.plusHours(2), item, user, BookingStatus.APPROVED);
         when(itemRepository.findByOwner_Id(owner.getId(), page)).thenReturn(itemPage);
-        when(commentRepository.findByItemId(item.getId())).thenReturn(comments);
-        when(bookingRepository.findFirstByItem_IdAndStartBeforeOrderByEndDesc(eq(item.getId()), any(LocalDateTime.class))).thenReturn(booking);
-        when(bookingRepository.findFirstByItem_IdAndStartAfterAndStatusOrderByStartAsc(eq(item.getId()), any(LocalDateTime.class), eq(BookingStatus.APPROVED))).thenReturn(bookingNext);
+        when(commentRepository.findByItemIdIn(List.of(item.getId()))).thenReturn(comments);
+        when(bookingRepository.findLastAndNextByItemIds(eq(List.of(item.getId())), any(LocalDateTime.class))).thenReturn(List.of(lastBooking, nextBooking));
 
         List<ItemDto> actualItems = itemService.getItemsByOwner(owner.getId(), from, size);
 
-        assertEquals(List.of(itemDtoWithBookings), actualItems);
+        assertEquals(List.of(new ItemDto(1L, "Item", "text", true, BookingMapper.toBookingForItemDto(lastBooking),
+                BookingMapper.toBookingForItemDto(nextBooking), commentDtoList, itemRequest.getId())), actualItems);
+        verify(commentRepository, never()).findByItemId(anyLong());
+    }
+
+    @Test
+    public void shouldReturnItemByOwnerFromBookingPointers() {
+        int from = 0;
+        int size = 10;
+        PageRequest page = PageRequest.of(from, size);
+        Slice<ItemDto> itemPage = new SliceImpl<>(List.of(toItemProjection(item)), page, false);
+        Booking lastBooking = new Booking(1L, created.minusHours(2), created.minusHours(1), item, user, BookingStatus.WAITING);
+        Booking nextBooking = new Booking(2L, created.plusHours(1), created.plusHours(2), item, user, BookingStatus.APPROVED);
+        when(itemRepository.findByOwner_Id(owner.getId(), page)).thenReturn(itemPage);
+        when(commentRepository.findByItemIdIn(List.of(item.getId()))).thenReturn(comments);
+        when(itemBookingPointers.findValid(eq(List.of(item.getId())), any(LocalDateTime.class)))
+                .thenReturn(Map.of(item.getId(), new ItemBookingPointer(item.getId(), lastBooking, nextBooking, nextBooking.getStart())));
+
+        List<ItemDto> actualItems = itemService.getItemsByOwner(owner.getId(), from, size);
+
+        assertEquals(List.of(new ItemDto(1L, "Item", "text", true, BookingMapper.toBookingForItemDto(lastBooking),
+                BookingMapper.toBookingForItemDto(nextBooking), commentDtoList, itemRequest.getId())), actualItems);
+        verify(bookingRepository, never()).findLastAndNextByItemIds(any(), any());
+    }
+
+    @Test
+    public void shouldReturnItemByIdFromBookingPointer() {
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(commentRepository.findByItemId(item.getId())).thenReturn(comments);
+        when(itemBookingPointers.findValid(eq(List.of(item.getId())), any(LocalDateTime.class)))
+                .thenReturn(Map.of(item.getId(), new ItemBookingPointer(item.getId(), booking, bookingNext, bookingNext.getStart())));
+
+        ItemDto actualItem = itemService.getItemById(owner.getId(), item.getId());
+
+        assertEquals(itemDtoWithBookings, actualItem);
+        verify(bookingRepository, never()).findFirstByItem_IdAndStartBeforeOrderByEndDesc(anyLong(), any());
     }
 
     @Test
@@ -160,16 +244,29 @@ class ItemServiceImplTest {
         int from = 0;
         int size = 10;
         PageRequest page = PageRequest.of(from, size);
-        List<Item> items = List.of(item);
-        Page<Item> itemPage = new PageImpl<>(items, page, items.size());
+        Slice<ItemDto> itemPage = new SliceImpl<>(List.of(toItemProjection(item)), page, false);
         when(itemRepository.findBySearchQuery("text", page)).thenReturn(itemPage);
-        when(commentRepository.findByItemId(item.getId())).thenReturn(comments);
+        when(commentRepository.findByItemIdIn(List.of(item.getId()))).thenReturn(comments);
 
         List<ItemDto> actualItems = itemService.getItemsBySearchQuery("text", from, size);
 
         assertEquals(List.of(itemDto), actualItems);
     }
 
+    @Test
+    public void shouldReturnItemBySearchQueryFromIndex() {
+        Item secondItem = new Item(2L, "Second", "text", true, owner, null);
+        when(itemSearchIndex.isReady()).thenReturn(true);
+        when(itemSearchIndex.search("text", 0, 10)).thenReturn(List.of(2L, 1L));
+        when(itemRepository.findDtosByIdIn(List.of(2L, 1L))).thenReturn(List.of(toItemProjection(item), toItemProjection(secondItem)));
+        when(commentRepository.findByItemIdIn(List.of(2L, 1L))).thenReturn(comments);
+
+        List<ItemDto> actualItems = itemService.getItemsBySearchQuery("text", 0, 10);
+
+        assertEquals(List.of(ItemMapper.toItemDto(secondItem, List.of()), itemDto), actualItems);
+        verify(itemRepository, never()).findBySearchQuery(anyString(), any());
+    }
+
     @Test
     public void shouldReturnEmptyListOfItemBySearchQueryWhenTextIsBlank() {
         int from = 0;
@@ -208,4 +305,34 @@ class ItemServiceImplTest {
         ValidationException exception = assertThrows(ValidationException.class, () -> itemService.createComment(user.getId(), commentDto, item.getId()));
         assertEquals("Отзывы могут оставлять только пользователи, которые брали вещь в аренду", exception.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldReturnItemAvailability() {
+        LocalDateTime windowStart = start.minusDays(1);
+        LocalDateTime windowEnd = start.plusDays(1);
+        Booking first = new Booking(1L, windowStart.minusHours(1), start, item, user, BookingStatus.APPROVED);
+        Booking second = new Booking(2L, start.plusHours(1), start.plusHours(3), item, user, BookingStatus.WAITING);
+        Booking third = new Booking(3L, start.plusHours(2), start.plusHours(4), item, user, BookingStatus.APPROVED);
+        when(itemRepository.existsById(item.getId())).thenReturn(true);
+        when(bookingRepository.findOverlapping(item.getId(), BookingIntervalIndex.ACTIVE_STATUSES, windowStart, windowEnd))
+                .thenReturn(List.of(first, second, third));
+
+        ItemAvailabilityDto availability = itemService.getItemAvailability(item.getId(), windowStart, windowEnd);
+
+        assertEquals(List.of(new TimeIntervalDto(windowStart, start), new TimeIntervalDto(start.plusHours(1), start.plusHours(4))),
+                availability.getOccupied());
+        assertEquals(List.of(new TimeIntervalDto(start, start.plusHours(1)), new TimeIntervalDto(start.plusHours(4), windowEnd)),
+                availability.getFree());
+    }
+
+    @Test
+    void shouldReturnValidationExceptionWhenAvailabilityPeriodIsIncorrect() {
+        assertThrows(ValidationException.class, () -> itemService.getItemAvailability(item.getId(), end, start));
+        verify(itemRepository, never()).existsById(anyLong());
+    }
+
+    private static ItemDto toItemProjection(Item item) {
+        return new ItemDto(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                item.getRequest() != null ? item.getRequest().getId() : null);
+    }
+}
@@ -0,0 +1,130 @@
+package ru.practicum.shareit.item.pointer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.BookingTransitionEvent;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "shareit.scheduling.enabled=false")
+class ItemBookingPointersTest {
+    @Autowired
+    private ItemBookingPointers itemBookingPointers;
+    @Autowired
+    private ItemBookingPointerRepository pointerRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepository.save(new User(null, "Owner", "pointer-owner@test.ru"));
+        booker = userRepository.save(new User(null, "Booker", "pointer-booker@test.ru"));
+        item = itemRepository.save(new Item(null, "Дрель", "Аккумуляторная дрель", true, owner, null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pointerRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void shouldPointToLastAndNextBookings() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking last = bookingRepository.save(new Booking(null, now.minusDays(2), now.minusDays(1), item, booker, BookingStatus.APPROVED));
+        bookingRepository.save(new Booking(null, now.plusDays(1), now.plusDays(2), item, booker, BookingStatus.WAITING));
+        Booking next = bookingRepository.save(new Booking(null, now.plusDays(3), now.plusDays(4), item, booker, BookingStatus.APPROVED));
+
+        itemBookingPointers.refresh(item.getId());
+
+        ItemBookingPointer pointer = itemBookingPointers.findValid(List.of(item.getId()), LocalDateTime.now()).get(item.getId());
+        assertNotNull(pointer);
+        assertEquals(last.getId(), pointer.getLastBooking().getId());
+        assertEquals(next.getId(), pointer.getNextBooking().getId());
+    }
+
+    @Test
+    void shouldKeepPointerValidPastRejectedBookings() {
+        LocalDateTime now = LocalDateTime.now();
+        bookingRepository.save(new Booking(null, now.plusDays(1), now.plusDays(2), item, booker, BookingStatus.REJECTED));
+        Booking next = bookingRepository.save(new Booking(null, now.plusDays(3), now.plusDays(4), item, booker, BookingStatus.WAITING));
+
+        itemBookingPointers.refresh(item.getId());
+
+        ItemBookingPointer pointer = pointerRepository.findById(item.getId()).orElseThrow();
+        assertEquals(next.getStart().withNano(0), pointer.getValidUntil().withNano(0));
+        assertNull(pointer.getNextBooking());
+    }
+
+    @Test
+    void shouldRollForwardExpiredPointer() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking started = bookingRepository.save(new Booking(null, now.plusSeconds(1), now.plusDays(1), item, booker, BookingStatus.APPROVED));
+        itemBookingPointers.refresh(item.getId());
+
+        assertTrue(itemBookingPointers.findValid(List.of(item.getId()), now.plusSeconds(2)).isEmpty());
+
+        ItemBookingPointer expired = pointerRepository.findById(item.getId()).orElseThrow();
+        expired.setValidUntil(now.minusSeconds(1));
+        pointerRepository.save(expired);
+        started.setStart(now.minusSeconds(1));
+        started = bookingRepository.save(started);
+
+        itemBookingPointers.rollForward();
+
+        ItemBookingPointer pointer = itemBookingPointers.findValid(List.of(item.getId()), LocalDateTime.now()).get(item.getId());
+        assertNotNull(pointer);
+        assertEquals(started.getId(), pointer.getLastBooking().getId());
+        assertNull(pointer.getNextBooking());
+        assertNull(pointer.getValidUntil());
+    }
+
+    @Test
+    void shouldRefreshPointerWhenBookingStarts() {
+        LocalDateTime now = LocalDateTime.now();
+        itemBookingPointers.create(item.getId());
+        Booking started = bookingRepository.save(new Booking(null, now.minusSeconds(1), now.plusDays(1), item, booker, BookingStatus.APPROVED));
+
+        eventPublisher.publishEvent(new BookingTransitionEvent(started.getId(), item.getId(), BookingTransitionEvent.Type.STARTED, BookingStatus.APPROVED));
+
+        ItemBookingPointer pointer = itemBookingPointers.findValid(List.of(item.getId()), LocalDateTime.now()).get(item.getId());
+        assertNotNull(pointer);
+        assertEquals(started.getId(), pointer.getLastBooking().getId());
+    }
+
+    @Test
+    void shouldFindAndRebuildInconsistentPointers() {
+        LocalDateTime now = LocalDateTime.now();
+        itemBookingPointers.create(item.getId());
+        bookingRepository.save(new Booking(null, now.plusDays(1), now.plusDays(2), item, booker, BookingStatus.APPROVED));
+
+        assertTrue(itemBookingPointers.findInconsistent().contains(item.getId()));
+
+        assertTrue(itemBookingPointers.rebuild() > 0);
+        assertFalse(itemBookingPointers.findInconsistent().contains(item.getId()));
+    }
+}
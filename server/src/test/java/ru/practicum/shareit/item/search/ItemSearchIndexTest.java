@@ -0,0 +1,135 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchIndexTest {
+    @Mock
+    private ItemRepository itemRepository;
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ItemSearchIndex(itemRepository, true, 1000);
+    }
+
+    @Test
+    void shouldBuildIndexFromAvailableItemsInBatches() {
+        List<ItemText> texts = LongStream.rangeClosed(1, 1500)
+                .mapToObj(id -> text(id, "Дрель " + id, id % 2 == 0 ? "аккумуляторная" : "сетевая"))
+                .collect(Collectors.toList());
+        when(itemRepository.findAvailableTextsAfter(eq(0L), any(Pageable.class))).thenReturn(texts.subList(0, 1000));
+        when(itemRepository.findAvailableTextsAfter(eq(1000L), any(Pageable.class))).thenReturn(texts.subList(1000, 1500));
+
+        index.build();
+
+        assertTrue(index.isReady());
+        assertEquals(List.of(2L, 4L, 6L), index.search("аккумулятор", 0, 3));
+        assertEquals(List.of(1499L), index.search("сетевая 1499", 0, 10));
+        assertEquals(List.of(1000L, 1001L), index.search("дрель", 999, 2));
+    }
+
+    @Test
+    void shouldMatchSubstringsOfTokens() {
+        index.index(new Item(1L, "Дрель", "Простая дрель", true, null, null));
+        index.index(new Item(2L, "Отвертка", "Аккумуляторная отвертка", true, null, null));
+
+        assertEquals(List.of(1L), index.search("дРелЬ", 0, 10));
+        assertEquals(List.of(2L), index.search("аккУМУЛЯТОР", 0, 10));
+        assertEquals(List.of(2L, 1L), index.search("т", 0, 10));
+        assertTrue(index.search("!!!", 0, 10).isEmpty());
+    }
+
+    @Test
+    void shouldMatchInnerSubstringsLongerThanGram() {
+        index.index(new Item(1L, "Отвертка", "Аккумуляторная отвертка", true, null, null));
+        index.index(new Item(2L, "Дрель", "Аккуратная дрель", true, null, null));
+
+        assertEquals(List.of(1L), index.search("кумулятор", 0, 10));
+        assertEquals(List.of(1L, 2L), index.search("акку", 0, 10));
+        assertTrue(index.search("кумулятрон", 0, 10).isEmpty());
+    }
+
+    @Test
+    void shouldRankNameMatchesFirst() {
+        index.index(new Item(1L, "Отвертка", "Подходит к дрели", true, null, null));
+        index.index(new Item(2L, "Дрель", "Ударная", true, null, null));
+        index.index(new Item(3L, "Шуруповерт", "Дрель-шуруповерт", true, null, null));
+        index.index(new Item(4L, "Дрель аккумуляторная", "Легкая", true, null, null));
+
+        assertEquals(List.of(2L, 4L, 1L, 3L), index.search("дрел", 0, 10));
+        assertEquals(List.of(4L, 1L), index.search("дрел", 1, 2));
+
+        index.reindex(new Item(2L, "Дрель", "Ударная", true, null, null), new Item(2L, "Перфоратор", "Ударная дрель", true, null, null));
+        assertEquals(List.of(4L, 1L, 2L, 3L), index.search("дрел", 0, 10));
+    }
+
+    @Test
+    void shouldKeepUpdateCommittedWhileBatchWasBeingBuilt() {
+        Item previous = new Item(1L, "Дрель", "Простая дрель", true, null, null);
+        Item current = new Item(1L, "Отвертка", "Простая отвертка", true, null, null);
+        when(itemRepository.findAvailableTextsAfter(eq(0L), any(Pageable.class))).thenAnswer(invocation -> {
+            index.reindex(previous, current);
+            return List.of(text(1L, previous.getName(), previous.getDescription()), text(2L, "Пила", "Ручная пила"));
+        });
+
+        index.build();
+
+        assertTrue(index.search("дрель", 0, 10).isEmpty());
+        assertEquals(List.of(1L), index.search("отвертка", 0, 10));
+        assertEquals(List.of(2L), index.search("пила", 0, 10));
+        assertTrue(index.search("простая", 0, 10).contains(1L));
+    }
+
+    @Test
+    void shouldReindexUpdatedItem() {
+        Item item = new Item(1L, "Дрель", "Простая дрель", true, null, null);
+        index.index(item);
+        Item updated = new Item(1L, "Отвертка", "Простая дрель", false, null, null);
+
+        index.reindex(item, updated);
+        assertTrue(index.search("простая", 0, 10).isEmpty());
+
+        Item available = new Item(1L, "Отвертка", "Простая отвертка", true, null, null);
+        index.reindex(updated, available);
+        assertEquals(List.of(1L), index.search("отвертка", 0, 10));
+        assertFalse(index.search("дрель", 0, 10).contains(1L));
+    }
+
+    private static ItemText text(long id, String name, String description) {
+        return new ItemText() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getDescription() {
+                return description;
+            }
+        };
+    }
+}
@@ -5,8 +5,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
@@ -26,9 +26,9 @@ class ItemRequestRepositoryTest {
 
     @BeforeEach
     void setUp() {
-        requestor = userRepository.save(new User(1L, "Requestor", "test@test.ru"));
-        user = userRepository.save(new User(2L, "user", "mail@test.ru"));
-        ItemRequest itemRequest1 = itemRequestRepository.save(new ItemRequest(1L, "text", requestor, LocalDateTime.now()));
+        requestor = userRepository.save(new User(null, "Requestor", "test@test.ru"));
+        user = userRepository.save(new User(null, "user", "mail@test.ru"));
+        ItemRequest itemRequest1 = itemRequestRepository.save(new ItemRequest(null, "text", requestor, LocalDateTime.now()));
     }
 
     @AfterEach
@@ -50,7 +50,7 @@ class ItemRequestRepositoryTest {
         int from = 0;
         int size = 10;
         PageRequest page = PageRequest.of(from, size);
-        Page<ItemRequest> itemRequests = itemRequestRepository.findAllByRequestorIdNotOrderByCreatedDesc(user.getId(), page);
+        Slice<ItemRequest> itemRequests = itemRequestRepository.findAllByRequestorIdNotOrderByCreatedDesc(user.getId(), page);
         List<ItemRequest> itemRequestList = itemRequests.toList();
 
         assertEquals(1, itemRequestList.size());
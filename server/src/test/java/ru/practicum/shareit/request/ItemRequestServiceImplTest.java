@@ -5,14 +5,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import ru.practicum.shareit.exeption.NotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemForItemRequestDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceIndex;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
@@ -23,6 +24,7 @@ import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static ru.practicum.shareit.request.ItemRequestMapper.toItemRequestDto;
 
@@ -33,6 +35,8 @@ class ItemRequestServiceImplTest {
     @Mock
     private UserRepository userRepository;
     @Mock
+    private UserExistenceIndex userExistenceIndex;
+    @Mock
     ItemRepository itemRepository;
     @InjectMocks
     private ItemRequestServiceImpl itemRequestService;
@@ -68,10 +72,10 @@ class ItemRequestServiceImplTest {
         List<ItemRequest> requests = new ArrayList<>();
         requests.add(itemRequest);
 
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(itemRequestRepository.findById(itemRequest.getId())).thenReturn(Optional.of(itemRequest));
+        when(userExistenceIndex.exists(user.getId())).thenReturn(true);
         when(itemRequestRepository.findAllByRequestorIdOrderByCreatedDesc(user.getId())).thenReturn(requests);
         when(itemRepository.findByRequest_IdOrderById(itemRequest.getId())).thenReturn(List.of(item));
+        when(itemRepository.findByRequest_IdInOrderById(List.of(itemRequest.getId()))).thenReturn(List.of(item));
 
         List<ItemRequestDto> requestDtos = requests.stream()
                 .map(ItemRequestMapper -> toItemRequestDto(ItemRequestMapper, itemRequestService.getItemsByRequest(ItemRequestMapper.getId())))
@@ -87,20 +91,21 @@ class ItemRequestServiceImplTest {
         int size = 10;
         PageRequest page = PageRequest.of(from, size);
         List<ItemRequest> requests = List.of(itemRequest);
-        Page<ItemRequest> requestsPage = new PageImpl<>(requests, page, requests.size());
+        Slice<ItemRequest> requestsPage = new SliceImpl<>(requests, page, false);
 
-        when(itemRequestRepository.findById(itemRequest.getId())).thenReturn(Optional.of(itemRequest));
-        when(itemRepository.findByRequest_IdOrderById(itemRequest.getId())).thenReturn(List.of(item));
+        when(itemRepository.findByRequest_IdInOrderById(List.of(itemRequest.getId()))).thenReturn(List.of(item));
         when(itemRequestRepository.findAllByRequestorIdNotOrderByCreatedDesc(secondUser.getId(), page)).thenReturn(requestsPage);
 
         List<ItemRequestDto> actualList = itemRequestService.getAllItemRequests(secondUser.getId(), 0, 10);
 
         assertEquals(List.of(itemRequestDto), actualList);
+        verify(itemRequestRepository, never()).findById(anyLong());
+        verify(itemRepository, never()).findByRequest_IdOrderById(anyLong());
     }
 
     @Test
     void shouldReturnItemRequestById() {
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(userExistenceIndex.exists(user.getId())).thenReturn(true);
         when(itemRequestRepository.findById(itemRequest.getId())).thenReturn(Optional.of(itemRequest));
         when(itemRepository.findByRequest_IdOrderById(itemRequest.getId())).thenReturn(List.of(item));
 
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class UserExistenceIndexTest {
+    private static final long LARGE_ID = Integer.MAX_VALUE + 10L;
+
+    private UserRepository userRepository;
+    private UserExistenceIndex userExistenceIndex;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        userExistenceIndex = new UserExistenceIndex(userRepository, 2);
+    }
+
+    @Test
+    void shouldAnswerLoadedIdsWithoutDatabase() {
+        when(userRepository.findIdsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(1L, 2L));
+        when(userRepository.findIdsAfter(eq(2L), any(Pageable.class))).thenReturn(List.of(LARGE_ID));
+
+        userExistenceIndex.load();
+
+        assertTrue(userExistenceIndex.exists(1L));
+        assertTrue(userExistenceIndex.exists(2L));
+        assertTrue(userExistenceIndex.exists(LARGE_ID));
+        verify(userRepository, never()).existsUserById(anyLong());
+    }
+
+    @Test
+    void shouldForgetUsersDeletedElsewhereOnReload() {
+        when(userRepository.findIdsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(1L, 2L), List.of(1L));
+        when(userRepository.findIdsAfter(eq(2L), any(Pageable.class))).thenReturn(List.of());
+        userExistenceIndex.load();
+        assertTrue(userExistenceIndex.exists(2L));
+
+        userExistenceIndex.load();
+
+        assertFalse(userExistenceIndex.exists(2L));
+        verify(userRepository, times(1)).existsUserById(2L);
+    }
+
+    @Test
+    void shouldKeepUsersRemovedWhileLoading() {
+        when(userRepository.findIdsAfter(eq(0L), any(Pageable.class))).thenAnswer(invocation -> {
+            userExistenceIndex.remove(2L);
+            return List.of(1L, 2L);
+        });
+        when(userRepository.findIdsAfter(eq(2L), any(Pageable.class))).thenReturn(List.of());
+
+        userExistenceIndex.load();
+
+        assertTrue(userExistenceIndex.exists(1L));
+        assertFalse(userExistenceIndex.exists(2L));
+    }
+
+    @Test
+    void shouldTrackAddedAndRemovedLargeIds() {
+        userExistenceIndex.add(LARGE_ID);
+        assertTrue(userExistenceIndex.exists(LARGE_ID));
+
+        userExistenceIndex.remove(LARGE_ID);
+
+        assertFalse(userExistenceIndex.exists(LARGE_ID));
+        verify(userRepository, times(1)).existsUserById(LARGE_ID);
+    }
+}
@@ -2,13 +2,17 @@ package ru.practicum.shareit.user;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataIntegrityViolationException;
 import ru.practicum.shareit.exeption.AlreadyExistsException;
 import ru.practicum.shareit.exeption.NotFoundException;
+import ru.practicum.shareit.item.cache.ItemDetailsCache;
+import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.EntityManagerFactory;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -22,6 +26,12 @@ import static org.mockito.Mockito.*;
 public class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private ItemDetailsCache itemDetailsCache;
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private EntityManagerFactory entityManagerFactory;
+    @Mock
+    private UserExistenceIndex userExistenceIndex;
     @InjectMocks
     private UserServiceImpl userService;
     private final User user = new User(1L, "Name", "test@test.ru");
@@ -68,6 +78,7 @@ public class UserServiceImplTest {
 
         assertEquals(userDto, actualUserDto);
         verify(userRepository, times(1)).save(user);
+        verify(userExistenceIndex, times(1)).add(user.getId());
     }
 
     @Test
@@ -117,5 +128,7 @@ public class UserServiceImplTest {
 
         assertThrows(NotFoundException.class, () -> userService.getUserById(id));
         verify(userRepository, times(1)).deleteById(id);
+        verify(entityManagerFactory.getCache(), times(1)).evict(Item.class);
+        verify(userExistenceIndex, times(1)).remove(id);
     }
 }